@@ -20,6 +20,7 @@ package org.apache.paimon.trino;
 
 import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.ConnectorHandleResolver;
+import io.trino.spi.connector.ConnectorIndexHandle;
 import io.trino.spi.connector.ConnectorSplit;
 import io.trino.spi.connector.ConnectorTableHandle;
 import io.trino.spi.connector.ConnectorTransactionHandle;
@@ -45,4 +46,9 @@ public class TrinoHandleResolver implements ConnectorHandleResolver {
     public Class<? extends ConnectorSplit> getSplitClass() {
         return TrinoSplit.class;
     }
+
+    @Override
+    public Class<? extends ConnectorIndexHandle> getIndexHandleClass() {
+        return TrinoIndexHandle.class;
+    }
 }
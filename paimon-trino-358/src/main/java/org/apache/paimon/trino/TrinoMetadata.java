@@ -20,17 +20,26 @@ package org.apache.paimon.trino;
 
 import org.apache.paimon.options.Options;
 
+import io.trino.spi.connector.AggregateFunction;
 import io.trino.spi.connector.ConnectorMetadata;
+import io.trino.spi.expression.ConnectorExpression;
+
+import java.util.List;
 
 /** Trino {@link ConnectorMetadata}. */
 public class TrinoMetadata extends TrinoMetadataBase {
 
-    public TrinoMetadata(Options catalogOptions) {
-        super(catalogOptions);
+    public TrinoMetadata(Options catalogOptions, TrinoPlanCache planCache) {
+        super(catalogOptions, planCache);
     }
 
     @Override
     public boolean usesLegacyTableLayouts() {
         return false;
     }
+
+    @Override
+    protected List<ConnectorExpression> aggregateArguments(AggregateFunction aggregate) {
+        return aggregate.getInputs();
+    }
 }
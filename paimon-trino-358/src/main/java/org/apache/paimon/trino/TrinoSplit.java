@@ -25,6 +25,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.trino.spi.HostAddress;
 import io.trino.spi.connector.ConnectorSplit;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -43,10 +44,14 @@ public class TrinoSplit implements ConnectorSplit {
     }
 
     public static TrinoSplit fromSplit(Split split, Double weight) {
-        return new TrinoSplit(EncodingUtils.encodeObjectToString(split), weight);
+        return fromSplits(Collections.singletonList(split), weight);
     }
 
-    public Split decodeSplit() {
+    public static TrinoSplit fromSplits(List<Split> splits, Double weight) {
+        return new TrinoSplit(EncodingUtils.encodeObjectToString(new ArrayList<>(splits)), weight);
+    }
+
+    public List<Split> decodeSplits() {
         return EncodingUtils.decodeStringToObject(splitSerialized);
     }
 
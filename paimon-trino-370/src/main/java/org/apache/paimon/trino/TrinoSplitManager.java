@@ -18,6 +18,8 @@
 
 package org.apache.paimon.trino;
 
+import org.apache.paimon.options.Options;
+
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorSplitManager;
 import io.trino.spi.connector.ConnectorSplitSource;
@@ -29,6 +31,10 @@ import io.trino.spi.connector.DynamicFilter;
 /** Trino {@link ConnectorSplitManager}. */
 public class TrinoSplitManager extends TrinoSplitManagerBase {
 
+    public TrinoSplitManager(Options options, TrinoPlanCache planCache) {
+        super(options, planCache);
+    }
+
     @Override
     public ConnectorSplitSource getSplits(
             ConnectorTransactionHandle transaction,
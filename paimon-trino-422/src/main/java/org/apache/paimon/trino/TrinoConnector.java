@@ -22,8 +22,12 @@ import io.trino.spi.connector.Connector;
 import io.trino.spi.connector.ConnectorMetadata;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorTransactionHandle;
+import io.trino.spi.function.table.ConnectorTableFunction;
 import io.trino.spi.transaction.IsolationLevel;
 
+import java.util.Collections;
+import java.util.Set;
+
 /** Trino {@link Connector}. */
 public class TrinoConnector extends TrinoConnectorBase {
 
@@ -45,4 +49,10 @@ public class TrinoConnector extends TrinoConnectorBase {
             ConnectorSession session, ConnectorTransactionHandle transactionHandle) {
         return getMetadataBase(transactionHandle);
     }
+
+    @Override
+    public Set<ConnectorTableFunction> getTableFunctions() {
+        return Collections.singleton(
+                new TrinoTableChangesFunction(getMetadataBase(TrinoTransactionHandle.INSTANCE)));
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.options.Options;
+
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.connector.ConnectorMetadata;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.ConnectorTableHandle;
+import io.trino.spi.connector.ConnectorTableProperties;
+import io.trino.spi.connector.ConnectorTableVersion;
+import io.trino.spi.connector.LocalProperty;
+import io.trino.spi.connector.SchemaTableName;
+import io.trino.spi.connector.TableFunctionApplicationResult;
+import io.trino.spi.function.table.ConnectorTableFunctionHandle;
+import io.trino.spi.predicate.TupleDomain;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static java.util.stream.Collectors.toMap;
+
+/** Trino {@link ConnectorMetadata}. */
+public class TrinoMetadata extends TrinoMetadataBase {
+
+    public TrinoMetadata(Options catalogOptions, TrinoPlanCache planCache) {
+        super(catalogOptions, planCache);
+    }
+
+    @Override
+    public ConnectorTableHandle getTableHandle(
+            ConnectorSession session,
+            SchemaTableName tableName,
+            Optional<ConnectorTableVersion> startVersion,
+            Optional<ConnectorTableVersion> endVersion) {
+        return getTableHandle(
+                session, tableName, versionOptions(tableName, startVersion, endVersion));
+    }
+
+    @Override
+    public Optional<TableFunctionApplicationResult<ConnectorTableHandle>> applyTableFunction(
+            ConnectorSession session, ConnectorTableFunctionHandle handle) {
+        if (!(handle instanceof TrinoTableChangesFunctionHandle)) {
+            return Optional.empty();
+        }
+        TrinoTableHandle tableHandle = ((TrinoTableChangesFunctionHandle) handle).getTableHandle();
+        List<ColumnHandle> columns =
+                FieldNameUtils.fieldNames(tableHandle.table().rowType()).stream()
+                        .map(tableHandle::columnHandle)
+                        .collect(Collectors.toList());
+        return Optional.of(new TableFunctionApplicationResult<>(tableHandle, columns));
+    }
+
+    @Override
+    public void setTableProperties(
+            ConnectorSession session,
+            ConnectorTableHandle tableHandle,
+            Map<String, Optional<Object>> properties) {
+        setTableOptions(
+                tableHandle,
+                properties.entrySet().stream()
+                        .collect(toMap(Map.Entry::getKey, e -> (String) e.getValue().get())));
+    }
+
+    @Override
+    protected ConnectorTableProperties tableProperties(
+            TupleDomain<ColumnHandle> predicate,
+            List<LocalProperty<ColumnHandle>> localProperties) {
+        return new ConnectorTableProperties(
+                predicate, Optional.empty(), Optional.empty(), localProperties);
+    }
+}
@@ -43,6 +43,7 @@ import io.trino.spi.type.RowType;
 import io.trino.spi.type.Type;
 
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 
@@ -54,8 +55,17 @@ public class TrinoPageSource extends TrinoPageSourceBase {
     public TrinoPageSource(
             RecordReader<InternalRow> reader,
             List<ColumnHandle> projectedColumns,
+            Map<Integer, Object> constantColumns,
             OptionalLong limit) {
-        super(reader, projectedColumns, limit);
+        super(reader, projectedColumns, constantColumns, limit);
+    }
+
+    public TrinoPageSource(
+            long rowCount,
+            List<ColumnHandle> projectedColumns,
+            Map<Integer, Object> constantColumns,
+            OptionalLong limit) {
+        super(rowCount, projectedColumns, constantColumns, limit);
     }
 
     protected void writeBlock(BlockBuilder output, Type type, DataType logicalType, Object value) {
@@ -148,7 +158,7 @@ public class TrinoPageSource extends TrinoPageSourceBase {
 
     @Override
     public long getMemoryUsage() {
-        return 0;
+        return getBufferedBytes();
     }
 
     @Override
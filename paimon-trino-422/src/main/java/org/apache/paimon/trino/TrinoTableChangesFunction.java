@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import io.airlift.slice.Slice;
+import io.trino.spi.connector.ColumnMetadata;
+import io.trino.spi.connector.ConnectorAccessControl;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.ConnectorTransactionHandle;
+import io.trino.spi.connector.SchemaTableName;
+import io.trino.spi.function.table.AbstractConnectorTableFunction;
+import io.trino.spi.function.table.Argument;
+import io.trino.spi.function.table.ConnectorTableFunction;
+import io.trino.spi.function.table.Descriptor;
+import io.trino.spi.function.table.ScalarArgument;
+import io.trino.spi.function.table.ScalarArgumentSpecification;
+import io.trino.spi.function.table.TableFunctionAnalysis;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.trino.spi.function.table.ReturnTypeSpecification.GenericTable.GENERIC_TABLE;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Trino {@link ConnectorTableFunction} which reads the changes of a table between two snapshots,
+ * e.g. {@code SELECT * FROM TABLE(paimon.system.table_changes('default', 't', 1, 3))}.
+ */
+public class TrinoTableChangesFunction extends AbstractConnectorTableFunction {
+
+    private static final String SCHEMA_NAME = "SCHEMA_NAME";
+    private static final String TABLE_NAME = "TABLE_NAME";
+    private static final String START_SNAPSHOT_ID = "START_SNAPSHOT_ID";
+    private static final String END_SNAPSHOT_ID = "END_SNAPSHOT_ID";
+
+    private final TrinoMetadataBase trinoMetadata;
+
+    public TrinoTableChangesFunction(TrinoMetadataBase trinoMetadata) {
+        super(
+                "system",
+                "table_changes",
+                Arrays.asList(
+                        ScalarArgumentSpecification.builder()
+                                .name(SCHEMA_NAME)
+                                .type(VARCHAR)
+                                .build(),
+                        ScalarArgumentSpecification.builder()
+                                .name(TABLE_NAME)
+                                .type(VARCHAR)
+                                .build(),
+                        ScalarArgumentSpecification.builder()
+                                .name(START_SNAPSHOT_ID)
+                                .type(BIGINT)
+                                .build(),
+                        ScalarArgumentSpecification.builder()
+                                .name(END_SNAPSHOT_ID)
+                                .type(BIGINT)
+                                .defaultValue(null)
+                                .build()),
+                GENERIC_TABLE);
+        this.trinoMetadata = requireNonNull(trinoMetadata, "trinoMetadata is null");
+    }
+
+    @Override
+    public TableFunctionAnalysis analyze(
+            ConnectorSession session,
+            ConnectorTransactionHandle transaction,
+            Map<String, Argument> arguments,
+            ConnectorAccessControl accessControl) {
+        TrinoTableHandle tableHandle =
+                trinoMetadata.getTableChangesHandle(
+                        new SchemaTableName(
+                                stringArgument(arguments, SCHEMA_NAME),
+                                stringArgument(arguments, TABLE_NAME)),
+                        requireNonNull(
+                                (Long)
+                                        ((ScalarArgument) arguments.get(START_SNAPSHOT_ID))
+                                                .getValue(),
+                                "start snapshot id is null"),
+                        (Long) ((ScalarArgument) arguments.get(END_SNAPSHOT_ID)).getValue());
+        List<ColumnMetadata> columns = tableHandle.columnMetadatas();
+        return TableFunctionAnalysis.builder()
+                .returnedType(
+                        Descriptor.descriptor(
+                                columns.stream()
+                                        .map(ColumnMetadata::getName)
+                                        .collect(Collectors.toList()),
+                                columns.stream()
+                                        .map(ColumnMetadata::getType)
+                                        .collect(Collectors.toList())))
+                .handle(new TrinoTableChangesFunctionHandle(tableHandle))
+                .build();
+    }
+
+    private static String stringArgument(Map<String, Argument> arguments, String name) {
+        Slice value = (Slice) ((ScalarArgument) arguments.get(name)).getValue();
+        return requireNonNull(value, name + " is null").toStringUtf8();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.trino.spi.function.table.ConnectorTableFunctionHandle;
+
+import java.util.Objects;
+
+/** Trino {@link ConnectorTableFunctionHandle}. */
+public final class TrinoTableChangesFunctionHandle implements ConnectorTableFunctionHandle {
+
+    private final TrinoTableHandle tableHandle;
+
+    @JsonCreator
+    public TrinoTableChangesFunctionHandle(
+            @JsonProperty("tableHandle") TrinoTableHandle tableHandle) {
+        this.tableHandle = tableHandle;
+    }
+
+    @JsonProperty
+    public TrinoTableHandle getTableHandle() {
+        return tableHandle;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TrinoTableChangesFunctionHandle that = (TrinoTableChangesFunctionHandle) o;
+        return Objects.equals(tableHandle, that.tableHandle);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tableHandle);
+    }
+
+    @Override
+    public String toString() {
+        return tableHandle.getSchemaName() + "." + tableHandle.getTableName();
+    }
+}
@@ -31,10 +31,18 @@ import static java.util.Objects.requireNonNull;
 
 /** Trino {@link ColumnHandle}. */
 public final class TrinoColumnHandle implements ColumnHandle {
+
+    // name of the columns holding an aggregate of a partition key, e.g. "$max:dt"
+    private static final String AGGREGATE_PREFIX = "$";
+    private static final String AGGREGATE_SEPARATOR = ":";
+
     private final String columnName;
     private final String typeString;
     private final Type trinoType;
 
+    // parsed from the type string on first use, which is read for every split
+    private transient DataType logicalType;
+
     @JsonCreator
     public TrinoColumnHandle(
             @JsonProperty("columnName") String columnName,
@@ -52,6 +60,32 @@ public final class TrinoColumnHandle implements ColumnHandle {
                 TrinoTypeUtils.fromPaimonType(columnType));
     }
 
+    /**
+     * Returns the handle of a column holding the aggregate of a partition key column, which is
+     * computed from the partition values instead of being read, see {@link
+     * TrinoMetadataBase#applyAggregation}.
+     */
+    public static TrinoColumnHandle aggregate(String function, TrinoColumnHandle column) {
+        return new TrinoColumnHandle(
+                AGGREGATE_PREFIX + function + AGGREGATE_SEPARATOR + column.getColumnName(),
+                column.getTypeString(),
+                column.getTrinoType());
+    }
+
+    public boolean isAggregate() {
+        return columnName.startsWith(AGGREGATE_PREFIX) && columnName.contains(AGGREGATE_SEPARATOR);
+    }
+
+    public String aggregateFunction() {
+        return columnName.substring(
+                AGGREGATE_PREFIX.length(), columnName.indexOf(AGGREGATE_SEPARATOR));
+    }
+
+    public String aggregateArgument() {
+        return columnName.substring(
+                columnName.indexOf(AGGREGATE_SEPARATOR) + AGGREGATE_SEPARATOR.length());
+    }
+
     @JsonProperty
     public String getColumnName() {
         return columnName;
@@ -68,7 +102,10 @@ public final class TrinoColumnHandle implements ColumnHandle {
     }
 
     public DataType logicalType() {
-        return JsonSerdeUtil.fromJson(typeString, DataType.class);
+        if (logicalType == null) {
+            logicalType = JsonSerdeUtil.fromJson(typeString, DataType.class);
+        }
+        return logicalType;
     }
 
     public ColumnMetadata getColumnMetadata() {
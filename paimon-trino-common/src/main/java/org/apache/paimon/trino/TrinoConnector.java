@@ -20,8 +20,12 @@ package org.apache.paimon.trino;
 
 import io.trino.spi.connector.Connector;
 import io.trino.spi.connector.ConnectorTransactionHandle;
+import io.trino.spi.ptf.ConnectorTableFunction;
 import io.trino.spi.transaction.IsolationLevel;
 
+import java.util.Collections;
+import java.util.Set;
+
 /** Trino {@link Connector}. */
 public class TrinoConnector extends TrinoConnectorBase {
 
@@ -42,4 +46,10 @@ public class TrinoConnector extends TrinoConnectorBase {
     public TrinoMetadataBase getMetadata(ConnectorTransactionHandle transactionHandle) {
         return getMetadataBase(transactionHandle);
     }
+
+    @Override
+    public Set<ConnectorTableFunction> getTableFunctions() {
+        return Collections.singleton(
+                new TrinoTableChangesFunction(getMetadataBase(TrinoTransactionHandle.INSTANCE)));
+    }
 }
@@ -35,6 +35,7 @@ public abstract class TrinoConnectorBase implements Connector {
     private final TrinoMetadataBase trinoMetadata;
     private final TrinoSplitManagerBase trinoSplitManager;
     private final TrinoPageSourceProvider trinoPageSourceProvider;
+    private final TrinoIndexProvider trinoIndexProvider;
     private final List<PropertyMetadata<?>> tableProperties;
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -46,6 +47,7 @@ public abstract class TrinoConnectorBase implements Connector {
         this.trinoSplitManager = requireNonNull(trinoSplitManager, "jmxSplitManager is null");
         this.trinoPageSourceProvider =
                 requireNonNull(trinoPageSourceProvider, "jmxRecordSetProvider is null");
+        this.trinoIndexProvider = new TrinoIndexProvider(trinoPageSourceProvider);
         tableProperties =
                 new TrinoTableOptions().getTableProperties().stream().collect(toImmutableList());
         sessionProperties = new TrinoSessionProperties().getSessionProperties();
@@ -71,6 +73,11 @@ public abstract class TrinoConnectorBase implements Connector {
         return trinoPageSourceProvider;
     }
 
+    @Override
+    public TrinoIndexProvider getIndexProvider() {
+        return trinoIndexProvider;
+    }
+
     @Override
     public List<PropertyMetadata<?>> getSessionProperties() {
         return sessionProperties;
@@ -80,4 +87,9 @@ public abstract class TrinoConnectorBase implements Connector {
     public List<PropertyMetadata<?>> getTableProperties() {
         return tableProperties;
     }
+
+    @Override
+    public void shutdown() {
+        trinoPageSourceProvider.shutdown();
+    }
 }
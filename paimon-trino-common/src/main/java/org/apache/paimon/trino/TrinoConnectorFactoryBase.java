@@ -67,10 +67,15 @@ public abstract class TrinoConnectorFactoryBase implements ConnectorFactory {
             }
         }
 
+        Options options = Options.fromMap(config);
+        // the metadata lists partitions and the split manager plans splits through the same cache,
+        // which holds at most the configured memory
+        TrinoPlanCache planCache =
+                new TrinoPlanCache(options.get(TrinoConnectorOptions.METADATA_CACHE_MAX_MEMORY));
         return new TrinoConnector(
-                new TrinoMetadata(Options.fromMap(config)),
-                new TrinoSplitManager(),
-                new TrinoPageSourceProvider());
+                new TrinoMetadata(options, planCache),
+                new TrinoSplitManager(options, planCache),
+                new TrinoPageSourceProvider(options));
     }
 
     private void readHadoopXml(String path, Map<String, String> config) throws Exception {
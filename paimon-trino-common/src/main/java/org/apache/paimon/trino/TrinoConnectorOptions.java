@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.options.ConfigOption;
+import org.apache.paimon.options.MemorySize;
+
+import java.time.Duration;
+
+import static org.apache.paimon.options.ConfigOptions.key;
+
+/** Options of the Trino connector, configured in the catalog properties file. */
+public class TrinoConnectorOptions {
+
+    public static final ConfigOption<MemorySize> METADATA_CACHE_MAX_MEMORY =
+            key("metadata-cache.max-memory")
+                    .memoryType()
+                    .defaultValue(MemorySize.ofMebiBytes(64))
+                    .withDescription(
+                            "Maximum memory used on the coordinator to cache the planned splits "
+                                    + "and the partitions of table snapshots, so that repeated "
+                                    + "queries on an unchanged snapshot do not read the "
+                                    + "manifests again. Set to 0 to disable the cache.");
+
+    public static final ConfigOption<Integer> PLANNING_MANIFEST_PARALLELISM =
+            key("planning.manifest-parallelism")
+                    .intType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "Number of manifest files read and filtered in parallel when "
+                                    + "planning the splits of a table, unless the table sets "
+                                    + "'scan.manifest.parallelism'. By default the number of "
+                                    + "processors of the coordinator.");
+
+    public static final ConfigOption<Duration> PLANNING_LOG_THRESHOLD =
+            key("planning.log-threshold")
+                    .durationType()
+                    .defaultValue(Duration.ofSeconds(1))
+                    .withDescription(
+                            "Planning the splits of a table scan which takes at least this long "
+                                    + "is logged at INFO level on the coordinator, with the query "
+                                    + "id, the table, the number of splits and the planning time. "
+                                    + "Faster planning is logged at DEBUG level. Set to 0 to log "
+                                    + "the planning of every scan at INFO level.");
+
+    public static final ConfigOption<Integer> READ_THREADS =
+            key("read.threads")
+                    .intType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "Number of threads of a worker which read pages ahead of the drivers, "
+                                    + "and of the threads which open the readers of the next "
+                                    + "splits, see the session properties 'read_ahead_pages' and "
+                                    + "'prefetch_splits'. By default the number of processors of "
+                                    + "the worker.");
+}
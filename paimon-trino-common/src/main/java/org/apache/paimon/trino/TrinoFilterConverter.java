@@ -37,10 +37,14 @@ import io.trino.spi.type.DateType;
 import io.trino.spi.type.DecimalType;
 import io.trino.spi.type.DoubleType;
 import io.trino.spi.type.IntegerType;
+import io.trino.spi.type.LongTimestamp;
 import io.trino.spi.type.LongTimestampWithTimeZone;
 import io.trino.spi.type.MapType;
 import io.trino.spi.type.RealType;
 import io.trino.spi.type.SmallintType;
+import io.trino.spi.type.TimeType;
+import io.trino.spi.type.TimestampType;
+import io.trino.spi.type.TimestampWithTimeZoneType;
 import io.trino.spi.type.TinyintType;
 import io.trino.spi.type.Type;
 import io.trino.spi.type.VarbinaryType;
@@ -55,11 +59,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import static io.trino.spi.type.TimeType.TIME_MILLIS;
-import static io.trino.spi.type.TimestampType.TIMESTAMP_MILLIS;
-import static io.trino.spi.type.TimestampWithTimeZoneType.TIMESTAMP_TZ_MILLIS;
+import static io.trino.spi.type.DateTimeEncoding.unpackMillisUtc;
+import static io.trino.spi.type.Timestamps.MICROSECONDS_PER_MILLISECOND;
+import static io.trino.spi.type.Timestamps.NANOSECONDS_PER_MICROSECOND;
 import static io.trino.spi.type.Timestamps.PICOSECONDS_PER_MILLISECOND;
+import static io.trino.spi.type.Timestamps.PICOSECONDS_PER_NANOSECOND;
 import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.floorMod;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 import static org.apache.paimon.predicate.PredicateBuilder.and;
@@ -212,7 +219,7 @@ public class TrinoFilterConverter {
         return and(conjuncts);
     }
 
-    private Object getLiteralValue(Type type, Object trinoNativeValue) {
+    static Object getLiteralValue(Type type, Object trinoNativeValue) {
         requireNonNull(trinoNativeValue, "trinoNativeValue is null");
 
         if (type instanceof BooleanType) {
@@ -247,20 +254,31 @@ public class TrinoFilterConverter {
             return toIntExact(((Long) trinoNativeValue));
         }
 
-        if (type.equals(TIME_MILLIS)) {
+        if (type instanceof TimeType) {
             return (int) ((long) trinoNativeValue / PICOSECONDS_PER_MILLISECOND);
         }
 
-        if (type.equals(TIMESTAMP_MILLIS)) {
-            return Timestamp.fromEpochMillis((long) trinoNativeValue / 1000);
+        if (type instanceof TimestampType) {
+            if (((TimestampType) type).isShort()) {
+                return Timestamp.fromMicros((long) trinoNativeValue);
+            }
+            LongTimestamp timestamp = (LongTimestamp) trinoNativeValue;
+            long epochMicros = timestamp.getEpochMicros();
+            return Timestamp.fromEpochMillis(
+                    floorDiv(epochMicros, MICROSECONDS_PER_MILLISECOND),
+                    floorMod(epochMicros, MICROSECONDS_PER_MILLISECOND)
+                                    * NANOSECONDS_PER_MICROSECOND
+                            + timestamp.getPicosOfMicro() / PICOSECONDS_PER_NANOSECOND);
         }
 
-        if (type.equals(TIMESTAMP_TZ_MILLIS)) {
+        if (type instanceof TimestampWithTimeZoneType) {
             if (trinoNativeValue instanceof Long) {
-                return trinoNativeValue;
+                return Timestamp.fromEpochMillis(unpackMillisUtc((long) trinoNativeValue));
             }
+            LongTimestampWithTimeZone timestamp = (LongTimestampWithTimeZone) trinoNativeValue;
             return Timestamp.fromEpochMillis(
-                    ((LongTimestampWithTimeZone) trinoNativeValue).getEpochMillis());
+                    timestamp.getEpochMillis(),
+                    timestamp.getPicosOfMilli() / PICOSECONDS_PER_NANOSECOND);
         }
 
         if (type instanceof VarcharType || type instanceof CharType) {
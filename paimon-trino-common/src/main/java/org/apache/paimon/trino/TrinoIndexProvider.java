@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.data.BinaryRow;
+import org.apache.paimon.data.GenericRow;
+import org.apache.paimon.io.DataFileMeta;
+import org.apache.paimon.schema.TableSchema;
+import org.apache.paimon.shade.guava30.com.google.common.base.Supplier;
+import org.apache.paimon.shade.guava30.com.google.common.base.Suppliers;
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.table.Table;
+import org.apache.paimon.table.sink.FixedBucketRowKeyExtractor;
+import org.apache.paimon.table.source.DataSplit;
+import org.apache.paimon.table.source.ReadBuilder;
+import org.apache.paimon.table.source.Split;
+import org.apache.paimon.types.DataType;
+import org.apache.paimon.types.RowType;
+import org.apache.paimon.utils.InternalRowUtils;
+
+import io.airlift.slice.Slice;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.connector.ConnectorIndex;
+import io.trino.spi.connector.ConnectorIndexHandle;
+import io.trino.spi.connector.ConnectorIndexProvider;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.ConnectorTransactionHandle;
+import io.trino.spi.connector.FixedPageSource;
+import io.trino.spi.connector.RecordCursor;
+import io.trino.spi.connector.RecordSet;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.apache.paimon.trino.ClassLoaderUtils.runWithContextClassLoader;
+
+/**
+ * Trino {@link ConnectorIndexProvider}. The index of a primary key table looks up a batch of keys
+ * by pushing them down as a filter. The splits of the index are planned once, and each batch reads
+ * only the splits of the buckets, and of the key ranges, which may contain its keys.
+ */
+public class TrinoIndexProvider implements ConnectorIndexProvider {
+
+    private final TrinoPageSourceProvider pageSourceProvider;
+
+    public TrinoIndexProvider(TrinoPageSourceProvider pageSourceProvider) {
+        this.pageSourceProvider = pageSourceProvider;
+    }
+
+    @Override
+    public ConnectorIndex getIndex(
+            ConnectorTransactionHandle transaction,
+            ConnectorSession session,
+            ConnectorIndexHandle indexHandle,
+            List<ColumnHandle> lookupSchema,
+            List<ColumnHandle> outputSchema) {
+        TrinoTableHandle tableHandle = ((TrinoIndexHandle) indexHandle).getTableHandle();
+        Table table = tableHandle.tableWithDynamicOptions(session);
+        Supplier<List<Split>> splits =
+                Suppliers.memoize(() -> plan(table, tableHandle.getFilter()));
+        return recordSet ->
+                runWithContextClassLoader(
+                        () ->
+                                lookup(
+                                        table,
+                                        tableHandle,
+                                        splits,
+                                        recordSet,
+                                        lookupSchema,
+                                        outputSchema),
+                        TrinoIndexProvider.class.getClassLoader());
+    }
+
+    private ConnectorPageSource lookup(
+            Table table,
+            TrinoTableHandle tableHandle,
+            Supplier<List<Split>> splits,
+            RecordSet recordSet,
+            List<ColumnHandle> lookupSchema,
+            List<ColumnHandle> outputSchema) {
+        List<Set<Object>> keys = new ArrayList<>();
+        for (int i = 0; i < lookupSchema.size(); i++) {
+            keys.add(new LinkedHashSet<>());
+        }
+        List<Object[]> tuples = new ArrayList<>();
+        try (RecordCursor cursor = recordSet.cursor()) {
+            nextKey:
+            while (cursor.advanceNextPosition()) {
+                for (int i = 0; i < lookupSchema.size(); i++) {
+                    // a null key never joins
+                    if (cursor.isNull(i)) {
+                        continue nextKey;
+                    }
+                }
+                Object[] tuple = new Object[lookupSchema.size()];
+                for (int i = 0; i < lookupSchema.size(); i++) {
+                    tuple[i] = nativeValue(cursor, i);
+                    keys.get(i).add(tuple[i]);
+                }
+                tuples.add(tuple);
+            }
+        }
+        if (keys.get(0).isEmpty()) {
+            return new FixedPageSource(Collections.emptyList());
+        }
+
+        // the values of each lookup column are pushed down as an IN list, which may match more
+        // combinations than the looked up keys, Trino only joins the rows of matching keys
+        Map<TrinoColumnHandle, Domain> domains = new HashMap<>();
+        for (int i = 0; i < lookupSchema.size(); i++) {
+            TrinoColumnHandle column = (TrinoColumnHandle) lookupSchema.get(i);
+            domains.put(
+                    column,
+                    Domain.multipleValues(column.getTrinoType(), new ArrayList<>(keys.get(i))));
+        }
+        TupleDomain<TrinoColumnHandle> filter =
+                tableHandle.getFilter().intersect(TupleDomain.withColumnDomains(domains));
+        if (filter.isNone()) {
+            return new FixedPageSource(Collections.emptyList());
+        }
+
+        List<Split> lookupSplits = prune(table, splits.get(), lookupSchema, tuples);
+        if (lookupSplits.isEmpty()) {
+            return new FixedPageSource(Collections.emptyList());
+        }
+        return pageSourceProvider.createPageSource(
+                table, filter, lookupSplits, outputSchema, OptionalLong.empty());
+    }
+
+    private static List<Split> plan(Table table, TupleDomain<TrinoColumnHandle> filter) {
+        ReadBuilder readBuilder = table.newReadBuilder();
+        new TrinoFilterConverter(table.rowType())
+                .convert(filter)
+                .ifPresent(readBuilder::withFilter);
+        return readBuilder.newScan().plan().splits();
+    }
+
+    /**
+     * Returns the splits which may contain the looked up keys: the splits of the partitions and
+     * buckets of the keys, whose key range contains one of the keys. Splits are never cut, as the
+     * files of a split are merged with each other. Only tables with a fixed number of buckets are
+     * pruned, and only if the full primary key, of exactly converted types, is looked up.
+     */
+    static List<Split> prune(
+            Table table, List<Split> splits, List<ColumnHandle> lookupSchema, List<Object[]> keys) {
+        if (!(table instanceof FileStoreTable)
+                || ((FileStoreTable) table).coreOptions().bucket() <= 0) {
+            return splits;
+        }
+        TableSchema schema = ((FileStoreTable) table).schema();
+        RowType rowType = schema.logicalRowType();
+        List<String> fieldNames = FieldNameUtils.fieldNames(rowType);
+        int[] fields = new int[lookupSchema.size()];
+        for (int i = 0; i < fields.length; i++) {
+            TrinoColumnHandle column = (TrinoColumnHandle) lookupSchema.get(i);
+            if (!TrinoMetadataBase.isExactlyEvaluated(column.getTrinoType())) {
+                // the key may be converted to a value of another bucket
+                return splits;
+            }
+            fields[i] = fieldNames.indexOf(column.getColumnName());
+        }
+        for (String primaryKey : schema.primaryKeys()) {
+            int field = fieldNames.indexOf(primaryKey.toLowerCase());
+            if (Arrays.stream(fields).noneMatch(f -> f == field)) {
+                return splits;
+            }
+        }
+
+        // the trimmed primary keys of each bucket of each partition
+        Map<BinaryRow, Map<Integer, List<BinaryRow>>> bucketKeys = new HashMap<>();
+        FixedBucketRowKeyExtractor extractor = new FixedBucketRowKeyExtractor(schema);
+        for (Object[] key : keys) {
+            GenericRow row = new GenericRow(rowType.getFieldCount());
+            for (int i = 0; i < fields.length; i++) {
+                Type type = ((TrinoColumnHandle) lookupSchema.get(i)).getTrinoType();
+                row.setField(fields[i], TrinoFilterConverter.getLiteralValue(type, key[i]));
+            }
+            extractor.setRecord(row);
+            bucketKeys
+                    .computeIfAbsent(extractor.partition().copy(), p -> new HashMap<>())
+                    .computeIfAbsent(extractor.bucket(), b -> new ArrayList<>())
+                    .add(extractor.trimmedPrimaryKey().copy());
+        }
+
+        List<DataType> keyTypes = schema.logicalTrimmedPrimaryKeysType().getFieldTypes();
+        List<Split> pruned = new ArrayList<>();
+        for (Split split : splits) {
+            if (!(split instanceof DataSplit)) {
+                pruned.add(split);
+                continue;
+            }
+            DataSplit dataSplit = (DataSplit) split;
+            List<BinaryRow> splitKeys =
+                    bucketKeys
+                            .getOrDefault(dataSplit.partition(), Collections.emptyMap())
+                            .get(dataSplit.bucket());
+            if (splitKeys != null
+                    && splitKeys.stream()
+                            .anyMatch(key -> inKeyRange(key, dataSplit.dataFiles(), keyTypes))) {
+                pruned.add(split);
+            }
+        }
+        return pruned;
+    }
+
+    private static boolean inKeyRange(
+            BinaryRow key, List<DataFileMeta> files, List<DataType> keyTypes) {
+        for (DataFileMeta file : files) {
+            if (compareKeys(file.minKey(), key, keyTypes) <= 0
+                    && compareKeys(key, file.maxKey(), keyTypes) <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int compareKeys(BinaryRow left, BinaryRow right, List<DataType> keyTypes) {
+        for (int i = 0; i < keyTypes.size(); i++) {
+            DataType type = keyTypes.get(i);
+            int result =
+                    InternalRowUtils.compare(
+                            InternalRowUtils.get(left, i, type),
+                            InternalRowUtils.get(right, i, type),
+                            type.getTypeRoot());
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private static Object nativeValue(RecordCursor cursor, int field) {
+        Type type = cursor.getType(field);
+        Class<?> javaType = type.getJavaType();
+        if (javaType == boolean.class) {
+            return cursor.getBoolean(field);
+        } else if (javaType == long.class) {
+            return cursor.getLong(field);
+        } else if (javaType == double.class) {
+            return cursor.getDouble(field);
+        } else if (javaType == Slice.class) {
+            return cursor.getSlice(field);
+        }
+        return cursor.getObject(field);
+    }
+}
@@ -18,49 +18,29 @@
 
 package org.apache.paimon.trino;
 
-import org.apache.paimon.CoreOptions;
-import org.apache.paimon.catalog.Catalog;
-import org.apache.paimon.catalog.CatalogContext;
-import org.apache.paimon.catalog.CatalogFactory;
-import org.apache.paimon.catalog.Identifier;
 import org.apache.paimon.options.Options;
-import org.apache.paimon.schema.SchemaChange;
-import org.apache.paimon.security.SecurityContext;
 
-import io.trino.spi.TrinoException;
+import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.ConnectorMetadata;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorTableHandle;
 import io.trino.spi.connector.ConnectorTableVersion;
 import io.trino.spi.connector.SchemaTableName;
-import io.trino.spi.type.LongTimestampWithTimeZone;
-import io.trino.spi.type.TimestampWithTimeZoneType;
-import io.trino.spi.type.Type;
+import io.trino.spi.connector.TableFunctionApplicationResult;
+import io.trino.spi.ptf.ConnectorTableFunctionHandle;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
-import static io.trino.spi.StandardErrorCode.NOT_SUPPORTED;
-import static io.trino.spi.type.DateTimeEncoding.unpackMillisUtc;
-import static java.lang.String.format;
 import static java.util.stream.Collectors.toMap;
 
 /** Trino {@link ConnectorMetadata}. */
 public class TrinoMetadata extends TrinoMetadataBase {
 
-    private final Catalog catalog;
-
-    public TrinoMetadata(Options catalogOptions) {
-        super(catalogOptions);
-        try {
-            SecurityContext.install(catalogOptions);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        this.catalog = CatalogFactory.createCatalog(CatalogContext.create(catalogOptions));
+    public TrinoMetadata(Options catalogOptions, TrinoPlanCache planCache) {
+        super(catalogOptions, planCache);
     }
 
     @Override
@@ -69,46 +49,22 @@ public class TrinoMetadata extends TrinoMetadataBase {
             SchemaTableName tableName,
             Optional<ConnectorTableVersion> startVersion,
             Optional<ConnectorTableVersion> endVersion) {
-        if (startVersion.isPresent()) {
-            throw new TrinoException(
-                    NOT_SUPPORTED, "Read paimon table with start version is not supported");
-        }
+        return getTableHandle(
+                session, tableName, versionOptions(tableName, startVersion, endVersion));
+    }
 
-        Map<String, String> dynamicOptions = new HashMap<>();
-        if (endVersion.isPresent()) {
-            ConnectorTableVersion version = endVersion.get();
-            Type versionType = version.getVersionType();
-            switch (version.getPointerType()) {
-                case TEMPORAL:
-                    {
-                        if (!(versionType instanceof TimestampWithTimeZoneType)) {
-                            throw new TrinoException(
-                                    NOT_SUPPORTED,
-                                    "Unsupported type for table version: "
-                                            + versionType.getDisplayName());
-                        }
-                        TimestampWithTimeZoneType timeZonedVersionType =
-                                (TimestampWithTimeZoneType) versionType;
-                        long epochMillis =
-                                timeZonedVersionType.isShort()
-                                        ? unpackMillisUtc((long) version.getVersion())
-                                        : ((LongTimestampWithTimeZone) version.getVersion())
-                                                .getEpochMillis();
-                        dynamicOptions.put(
-                                CoreOptions.SCAN_TIMESTAMP_MILLIS.key(),
-                                String.valueOf(epochMillis));
-                        break;
-                    }
-                case TARGET_ID:
-                    {
-                        dynamicOptions.put(
-                                CoreOptions.SCAN_SNAPSHOT_ID.key(),
-                                version.getVersion().toString());
-                        break;
-                    }
-            }
+    @Override
+    public Optional<TableFunctionApplicationResult<ConnectorTableHandle>> applyTableFunction(
+            ConnectorSession session, ConnectorTableFunctionHandle handle) {
+        if (!(handle instanceof TrinoTableChangesFunctionHandle)) {
+            return Optional.empty();
         }
-        return getTableHandle(tableName, dynamicOptions);
+        TrinoTableHandle tableHandle = ((TrinoTableChangesFunctionHandle) handle).getTableHandle();
+        List<ColumnHandle> columns =
+                FieldNameUtils.fieldNames(tableHandle.table().rowType()).stream()
+                        .map(tableHandle::columnHandle)
+                        .collect(Collectors.toList());
+        return Optional.of(new TableFunctionApplicationResult<>(tableHandle, columns));
     }
 
     @Override
@@ -116,20 +72,9 @@ public class TrinoMetadata extends TrinoMetadataBase {
             ConnectorSession session,
             ConnectorTableHandle tableHandle,
             Map<String, Optional<Object>> properties) {
-        TrinoTableHandle trinoTableHandle = (TrinoTableHandle) tableHandle;
-        Identifier identifier =
-                new Identifier(trinoTableHandle.getSchemaName(), trinoTableHandle.getTableName());
-        List<SchemaChange> changes = new ArrayList<>();
-        Map<String, String> options =
+        setTableOptions(
+                tableHandle,
                 properties.entrySet().stream()
-                        .collect(toMap(Map.Entry::getKey, e -> (String) e.getValue().get()));
-        options.forEach((key, value) -> changes.add(SchemaChange.setOption(key, value)));
-        // TODO: remove options, SET PROPERTIES x = DEFAULT
-        try {
-            catalog.alterTable(identifier, changes, false);
-        } catch (Exception e) {
-            throw new RuntimeException(
-                    format("failed to alter table: '%s'", trinoTableHandle.getTableName()), e);
-        }
+                        .collect(toMap(Map.Entry::getKey, e -> (String) e.getValue().get())));
     }
 }
@@ -18,36 +18,71 @@
 
 package org.apache.paimon.trino;
 
+import org.apache.paimon.CoreOptions;
+import org.apache.paimon.CoreOptions.ChangelogProducer;
+import org.apache.paimon.CoreOptions.IncrementalBetweenScanMode;
 import org.apache.paimon.catalog.Catalog;
 import org.apache.paimon.catalog.CatalogContext;
 import org.apache.paimon.catalog.CatalogFactory;
 import org.apache.paimon.catalog.Identifier;
+import org.apache.paimon.data.BinaryRow;
 import org.apache.paimon.options.Options;
 import org.apache.paimon.schema.Schema;
 import org.apache.paimon.schema.SchemaChange;
 import org.apache.paimon.security.SecurityContext;
+import org.apache.paimon.table.FileStoreTable;
 import org.apache.paimon.table.Table;
+import org.apache.paimon.table.source.ReadBuilder;
+import org.apache.paimon.table.system.AuditLogTable;
+import org.apache.paimon.table.system.ReadOptimizedTable;
+import org.apache.paimon.types.RowType;
 import org.apache.paimon.utils.InstantiationUtil;
+import org.apache.paimon.utils.InternalRowUtils;
 import org.apache.paimon.utils.StringUtils;
 
+import io.trino.spi.TrinoException;
+import io.trino.spi.connector.AggregateFunction;
+import io.trino.spi.connector.AggregationApplicationResult;
 import io.trino.spi.connector.Assignment;
 import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.ColumnMetadata;
 import io.trino.spi.connector.ConnectorMetadata;
+import io.trino.spi.connector.ConnectorResolvedIndex;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorTableHandle;
 import io.trino.spi.connector.ConnectorTableMetadata;
 import io.trino.spi.connector.ConnectorTableProperties;
+import io.trino.spi.connector.ConnectorTableVersion;
 import io.trino.spi.connector.Constraint;
 import io.trino.spi.connector.ConstraintApplicationResult;
+import io.trino.spi.connector.GroupingProperty;
 import io.trino.spi.connector.LimitApplicationResult;
+import io.trino.spi.connector.LocalProperty;
 import io.trino.spi.connector.ProjectionApplicationResult;
+import io.trino.spi.connector.SampleApplicationResult;
+import io.trino.spi.connector.SampleType;
 import io.trino.spi.connector.SchemaTableName;
 import io.trino.spi.connector.SchemaTablePrefix;
+import io.trino.spi.connector.TableNotFoundException;
 import io.trino.spi.expression.ConnectorExpression;
+import io.trino.spi.expression.Variable;
 import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.NullableValue;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.security.TrinoPrincipal;
+import io.trino.spi.type.BigintType;
+import io.trino.spi.type.BooleanType;
+import io.trino.spi.type.DateType;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.IntegerType;
+import io.trino.spi.type.LongTimestampWithTimeZone;
+import io.trino.spi.type.SmallintType;
+import io.trino.spi.type.TimestampWithTimeZoneType;
+import io.trino.spi.type.TinyintType;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarcharType;
+
+import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -59,29 +94,37 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static io.trino.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static io.trino.spi.StandardErrorCode.NOT_SUPPORTED;
+import static io.trino.spi.type.DateTimeEncoding.unpackMillisUtc;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
+import static org.apache.paimon.catalog.Catalog.SYSTEM_TABLE_SPLITTER;
+import static org.apache.paimon.trino.TrinoTypeUtils.toTrinoNativeValue;
 import static org.apache.paimon.utils.Preconditions.checkArgument;
 
 /** Trino {@link ConnectorMetadata}. */
 public abstract class TrinoMetadataBase implements ConnectorMetadata {
 
     private final Catalog catalog;
+    private final TrinoPlanCache planCache;
 
-    public TrinoMetadataBase(Options catalogOptions) {
+    public TrinoMetadataBase(Options catalogOptions, TrinoPlanCache planCache) {
         try {
             SecurityContext.install(catalogOptions);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
         this.catalog = CatalogFactory.createCatalog(CatalogContext.create(catalogOptions));
+        this.planCache = planCache;
     }
 
     @Override
@@ -126,17 +169,59 @@ public abstract class TrinoMetadataBase implements ConnectorMetadata {
 
     @Override
     public TrinoTableHandle getTableHandle(ConnectorSession session, SchemaTableName tableName) {
-        return getTableHandle(tableName, null);
+        return getTableHandle(session, tableName, null);
     }
 
     @Override
     public ConnectorTableProperties getTableProperties(
             ConnectorSession session, ConnectorTableHandle table) {
+        TrinoTableHandle trinoTableHandle = (TrinoTableHandle) table;
+        if (trinoTableHandle.getFilter().isNone()) {
+            // the filter is a contradiction, Trino replaces the scan with an empty result
+            return tableProperties(TupleDomain.none(), Collections.emptyList());
+        }
+
+        List<String> primaryKeys = trinoTableHandle.table().primaryKeys();
+        if (TrinoTableUtils.isDataFileTable(trinoTableHandle.table()) && !primaryKeys.isEmpty()) {
+            // a key lives in a single bucket, whose splits cover disjoint key ranges and are
+            // merged, so the rows of a key are never spread over splits. The rows are also sorted
+            // by key within a split, but not across the splits read by the same driver. The read
+            // optimized view has a single row per key, whichever split it is read by.
+            List<ColumnHandle> keyColumns =
+                    primaryKeys.stream()
+                            .map(key -> trinoTableHandle.columnHandle(key.toLowerCase()))
+                            .collect(toList());
+            return tableProperties(
+                    TupleDomain.all(),
+                    Collections.singletonList(new GroupingProperty<>(keyColumns)));
+        }
         return new ConnectorTableProperties();
     }
 
+    protected ConnectorTableProperties tableProperties(
+            TupleDomain<ColumnHandle> predicate,
+            List<LocalProperty<ColumnHandle>> localProperties) {
+        return new ConnectorTableProperties(
+                predicate, Optional.empty(), Optional.empty(), Optional.empty(), localProperties);
+    }
+
     public TrinoTableHandle getTableHandle(
-            SchemaTableName tableName, Map<String, String> dynamicOptions) {
+            ConnectorSession session,
+            SchemaTableName tableName,
+            Map<String, String> dynamicOptions) {
+        return getTableHandle(session, tableName, dynamicOptions, true);
+    }
+
+    /**
+     * Returns the handle of a table, whose latest snapshot is pinned if {@code pinSnapshot}.
+     * Handles which are not scanned, such as the ones listing the columns of tables, need not pin
+     * it.
+     */
+    private TrinoTableHandle getTableHandle(
+            ConnectorSession session,
+            SchemaTableName tableName,
+            Map<String, String> dynamicOptions,
+            boolean pinSnapshot) {
         Identifier tablePath = new Identifier(tableName.getSchemaName(), tableName.getTableName());
         byte[] serializedTable;
         try {
@@ -144,6 +229,15 @@ public abstract class TrinoMetadataBase implements ConnectorMetadata {
             if (dynamicOptions != null && !dynamicOptions.isEmpty()) {
                 table = table.copy(dynamicOptions);
             }
+            if (pinSnapshot) {
+                table = withLatestSnapshotPinned(session, table);
+            }
+            if (TrinoSessionProperties.isReadOptimized(session)
+                    && table instanceof FileStoreTable
+                    && !table.primaryKeys().isEmpty()) {
+                // same as reading the system table <table>$ro
+                table = new ReadOptimizedTable((FileStoreTable) table);
+            }
             serializedTable = InstantiationUtil.serializeObject(table);
         } catch (Catalog.TableNotExistException e) {
             return null;
@@ -155,6 +249,184 @@ public abstract class TrinoMetadataBase implements ConnectorMetadata {
                 tableName.getSchemaName(), tableName.getTableName(), serializedTable);
     }
 
+    /**
+     * Pins the latest snapshot of tables which read it, so that planning, the splits and the
+     * readers on the workers all see the same snapshot, instead of resolving the latest one again
+     * and again. Tables whose snapshot is chosen by session properties are left unchanged.
+     */
+    private static Table withLatestSnapshotPinned(ConnectorSession session, Table table) {
+        if (!(table instanceof FileStoreTable)
+                || ((FileStoreTable) table).coreOptions().startupMode()
+                        != CoreOptions.StartupMode.LATEST_FULL
+                || TrinoSessionProperties.getScanTimestampMillis(session) != null
+                || TrinoSessionProperties.getScanSnapshotId(session) != null
+                || TrinoSessionProperties.getIncrementalBetween(session) != null) {
+            return table;
+        }
+        Long snapshotId = ((FileStoreTable) table).snapshotManager().latestSnapshotId();
+        if (snapshotId == null) {
+            return table;
+        }
+        Map<String, String> pinned = new HashMap<>();
+        pinned.put(CoreOptions.SCAN_MODE.key(), CoreOptions.StartupMode.FROM_SNAPSHOT.toString());
+        pinned.put(CoreOptions.SCAN_SNAPSHOT_ID.key(), String.valueOf(snapshotId));
+        return table.copy(pinned);
+    }
+
+    /**
+     * Returns the dynamic options reading the table versions of {@code FOR VERSION AS OF} and
+     * {@code FOR TIMESTAMP AS OF}, or the changes between a start and an end version.
+     */
+    protected Map<String, String> versionOptions(
+            SchemaTableName tableName,
+            Optional<ConnectorTableVersion> startVersion,
+            Optional<ConnectorTableVersion> endVersion) {
+        Map<String, String> dynamicOptions = new HashMap<>();
+        if (startVersion.isPresent()) {
+            // read only the changes after the start version up to the end version, by default
+            // up to the latest snapshot
+            ConnectorTableVersion start = startVersion.get();
+            if (endVersion.isPresent()
+                    && endVersion.get().getPointerType() != start.getPointerType()) {
+                throw new TrinoException(
+                        NOT_SUPPORTED,
+                        "Read paimon table between versions of different types is not supported");
+            }
+            switch (start.getPointerType()) {
+                case TEMPORAL:
+                    {
+                        long endMillis =
+                                endVersion.isPresent()
+                                        ? epochMillis(endVersion.get())
+                                        : System.currentTimeMillis();
+                        dynamicOptions.put(
+                                CoreOptions.INCREMENTAL_BETWEEN_TIMESTAMP.key(),
+                                epochMillis(start) + "," + endMillis);
+                        break;
+                    }
+                case TARGET_ID:
+                    {
+                        String endSnapshotId;
+                        if (endVersion.isPresent()) {
+                            endSnapshotId = endVersion.get().getVersion().toString();
+                        } else {
+                            Long latestSnapshotId = latestSnapshotId(tableName);
+                            if (latestSnapshotId == null) {
+                                return dynamicOptions;
+                            }
+                            endSnapshotId = latestSnapshotId.toString();
+                        }
+                        dynamicOptions.put(
+                                CoreOptions.INCREMENTAL_BETWEEN.key(),
+                                start.getVersion() + "," + endSnapshotId);
+                        break;
+                    }
+            }
+        } else if (endVersion.isPresent()) {
+            ConnectorTableVersion version = endVersion.get();
+            switch (version.getPointerType()) {
+                case TEMPORAL:
+                    {
+                        dynamicOptions.put(
+                                CoreOptions.SCAN_TIMESTAMP_MILLIS.key(),
+                                String.valueOf(epochMillis(version)));
+                        break;
+                    }
+                case TARGET_ID:
+                    {
+                        dynamicOptions.put(
+                                CoreOptions.SCAN_SNAPSHOT_ID.key(),
+                                version.getVersion().toString());
+                        break;
+                    }
+            }
+        }
+        return dynamicOptions;
+    }
+
+    /** Returns the epoch millis of a temporal table version, {@code FOR TIMESTAMP AS OF}. */
+    protected static long epochMillis(ConnectorTableVersion version) {
+        Type versionType = version.getVersionType();
+        if (!(versionType instanceof TimestampWithTimeZoneType)) {
+            throw new TrinoException(
+                    NOT_SUPPORTED,
+                    "Unsupported type for table version: " + versionType.getDisplayName());
+        }
+        TimestampWithTimeZoneType timeZonedVersionType = (TimestampWithTimeZoneType) versionType;
+        return timeZonedVersionType.isShort()
+                ? unpackMillisUtc((long) version.getVersion())
+                : ((LongTimestampWithTimeZone) version.getVersion()).getEpochMillis();
+    }
+
+    /** Returns the id of the latest snapshot, or null if the table or the snapshot is missing. */
+    @Nullable
+    protected Long latestSnapshotId(SchemaTableName tableName) {
+        try {
+            Table table =
+                    catalog.getTable(
+                            new Identifier(tableName.getSchemaName(), tableName.getTableName()));
+            return table instanceof FileStoreTable
+                    ? ((FileStoreTable) table).snapshotManager().latestSnapshotId()
+                    : null;
+        } catch (Catalog.TableNotExistException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the handle of the changes of the table after the start snapshot up to the end
+     * snapshot, by default the latest one, see {@link TrinoTableChangesFunction}. Only the delta
+     * files, or the changelog files if the table produces them, of the snapshots in between are
+     * planned, and the kind of each change is read as the first column.
+     */
+    public TrinoTableHandle getTableChangesHandle(
+            SchemaTableName tableName, long startSnapshotId, @Nullable Long endSnapshotId) {
+        Identifier identifier = new Identifier(tableName.getSchemaName(), tableName.getTableName());
+        Table table;
+        try {
+            table = catalog.getTable(identifier);
+        } catch (Catalog.TableNotExistException e) {
+            throw new TableNotFoundException(tableName);
+        }
+        if (!(table instanceof FileStoreTable)) {
+            throw new TrinoException(
+                    NOT_SUPPORTED, "Table changes are not supported for table: " + tableName);
+        }
+
+        FileStoreTable fileStoreTable = (FileStoreTable) table;
+        if (endSnapshotId == null) {
+            endSnapshotId = fileStoreTable.snapshotManager().latestSnapshotId();
+        }
+        if (endSnapshotId == null || endSnapshotId < startSnapshotId) {
+            throw new TrinoException(
+                    INVALID_FUNCTION_ARGUMENT,
+                    format(
+                            "Invalid snapshot range (%s, %s] of table: %s",
+                            startSnapshotId, endSnapshotId, tableName));
+        }
+        Map<String, String> options = new HashMap<>();
+        options.put(CoreOptions.INCREMENTAL_BETWEEN.key(), startSnapshotId + "," + endSnapshotId);
+        boolean changelog =
+                !fileStoreTable.primaryKeys().isEmpty()
+                        && fileStoreTable.coreOptions().changelogProducer()
+                                != ChangelogProducer.NONE;
+        options.put(
+                CoreOptions.INCREMENTAL_BETWEEN_SCAN_MODE.key(),
+                (changelog
+                                ? IncrementalBetweenScanMode.CHANGELOG
+                                : IncrementalBetweenScanMode.DELTA)
+                        .getValue());
+        try {
+            return new TrinoTableHandle(
+                    tableName.getSchemaName(),
+                    tableName.getTableName() + SYSTEM_TABLE_SPLITTER + AuditLogTable.AUDIT_LOG,
+                    InstantiationUtil.serializeObject(
+                            new AuditLogTable(fileStoreTable.copy(options))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     public ConnectorTableMetadata getTableMetadata(
             ConnectorSession session, ConnectorTableHandle tableHandle) {
@@ -283,7 +555,11 @@ public abstract class TrinoMetadataBase implements ConnectorMetadata {
                 .collect(
                         toMap(
                                 Function.identity(),
-                                table -> getTableHandle(session, table).columnMetadatas()));
+                                // the columns do not depend on the snapshot, listing them does
+                                // not look up the latest snapshot of every table
+                                table ->
+                                        getTableHandle(session, table, null, false)
+                                                .columnMetadatas()));
     }
 
     @Override
@@ -341,16 +617,39 @@ public abstract class TrinoMetadataBase implements ConnectorMetadata {
         }
     }
 
+    /** Sets the options of the table, the properties of {@code ALTER TABLE SET PROPERTIES}. */
+    protected void setTableOptions(ConnectorTableHandle tableHandle, Map<String, String> options) {
+        TrinoTableHandle trinoTableHandle = (TrinoTableHandle) tableHandle;
+        Identifier identifier =
+                new Identifier(trinoTableHandle.getSchemaName(), trinoTableHandle.getTableName());
+        List<SchemaChange> changes = new ArrayList<>();
+        options.forEach((key, value) -> changes.add(SchemaChange.setOption(key, value)));
+        // TODO: remove options, SET PROPERTIES x = DEFAULT
+        try {
+            catalog.alterTable(identifier, changes, false);
+        } catch (Exception e) {
+            throw new RuntimeException(
+                    format("failed to alter table: '%s'", trinoTableHandle.getTableName()), e);
+        }
+    }
+
     @Override
     public Optional<ConstraintApplicationResult<ConnectorTableHandle>> applyFilter(
             ConnectorSession session, ConnectorTableHandle handle, Constraint constraint) {
         TrinoTableHandle trinoTableHandle = (TrinoTableHandle) handle;
+        if (trinoTableHandle.getGroupingColumns().isPresent()) {
+            return Optional.empty();
+        }
+
         TupleDomain<TrinoColumnHandle> oldFilter = trinoTableHandle.getFilter();
         TupleDomain<TrinoColumnHandle> newFilter =
                 constraint
                         .getSummary()
                         .transformKeys(TrinoColumnHandle.class::cast)
                         .intersect(oldFilter);
+        newFilter =
+                newFilter.intersect(
+                        partitionFilter(session, trinoTableHandle, constraint, newFilter));
         if (oldFilter.equals(newFilter)) {
             return Optional.empty();
         }
@@ -360,11 +659,19 @@ public abstract class TrinoMetadataBase implements ConnectorMetadata {
         new TrinoFilterConverter(trinoTableHandle.table().rowType())
                 .convert(newFilter, acceptedDomains, unsupportedDomains);
 
-        List<String> partitionKeys = trinoTableHandle.table().partitionKeys();
+        Table table = trinoTableHandle.table();
+        List<String> partitionKeys = table.partitionKeys();
+        // the reader of append-only tables evaluates the filter on every row
+        boolean enforceFilter =
+                TrinoSessionProperties.isEnforceFilter(session)
+                        && table instanceof FileStoreTable
+                        && table.primaryKeys().isEmpty();
         LinkedHashMap<TrinoColumnHandle, Domain> unenforcedDomains = new LinkedHashMap<>();
         acceptedDomains.forEach(
                 (columnHandle, domain) -> {
-                    if (!partitionKeys.contains(columnHandle.getColumnName())) {
+                    if (!partitionKeys.contains(columnHandle.getColumnName())
+                            && !(enforceFilter
+                                    && isExactlyEvaluated(columnHandle.getTrinoType()))) {
                         unenforcedDomains.put(columnHandle, domain);
                     }
                 });
@@ -379,6 +686,98 @@ public abstract class TrinoMetadataBase implements ConnectorMetadata {
                 new ConstraintApplicationResult<>(trinoTableHandle.copy(newFilter), remain, false));
     }
 
+    /**
+     * Returns whether Paimon evaluates predicates on the type exactly as Trino does. Floating point
+     * types compare NaN differently, and timestamps may lose precision when converted.
+     */
+    static boolean isExactlyEvaluated(Type type) {
+        return type instanceof BooleanType
+                || type instanceof TinyintType
+                || type instanceof SmallintType
+                || type instanceof IntegerType
+                || type instanceof BigintType
+                || type instanceof DateType
+                || type instanceof DecimalType
+                || type instanceof VarcharType;
+    }
+
+    /**
+     * Evaluates the predicate of the constraint, which may contain expressions Trino can not
+     * summarize as domains, such as {@code substr(dt, 1, 7) = '2024-05'}, against the partitions
+     * the filter selects, and returns the domains of the partitions which may match it. The
+     * partitions are listed from the manifests once per snapshot and filter.
+     */
+    private TupleDomain<TrinoColumnHandle> partitionFilter(
+            ConnectorSession session,
+            TrinoTableHandle tableHandle,
+            Constraint constraint,
+            TupleDomain<TrinoColumnHandle> filter) {
+        Table table = tableHandle.tableWithDynamicOptions(session);
+        List<String> partitionKeys =
+                table.partitionKeys().stream().map(String::toLowerCase).collect(toList());
+        boolean onPartitionKeys =
+                constraint
+                        .getPredicateColumns()
+                        .map(
+                                columns ->
+                                        columns.stream()
+                                                .map(TrinoColumnHandle.class::cast)
+                                                .map(TrinoColumnHandle::getColumnName)
+                                                .allMatch(partitionKeys::contains))
+                        .orElse(false);
+        if (!constraint.predicate().isPresent()
+                || partitionKeys.isEmpty()
+                || !onPartitionKeys
+                || filter.isNone()
+                || !TrinoTableUtils.isDataFileTable(table)) {
+            return TupleDomain.all();
+        }
+
+        RowType rowType = table.rowType();
+        List<String> fieldNames = FieldNameUtils.fieldNames(rowType);
+        List<TrinoColumnHandle> partitionColumns =
+                partitionKeys.stream()
+                        .map(
+                                key ->
+                                        TrinoColumnHandle.of(
+                                                key, rowType.getTypeAt(fieldNames.indexOf(key))))
+                        .collect(toList());
+        TupleDomain<TrinoColumnHandle> keyFilter =
+                filter.filter((column, domain) -> partitionKeys.contains(column.getColumnName()));
+        List<BinaryRow> partitions =
+                planCache.partitions(
+                        table,
+                        keyFilter,
+                        t -> {
+                            ReadBuilder read = t.newReadBuilder();
+                            new TrinoFilterConverter(rowType)
+                                    .convert(keyFilter)
+                                    .ifPresent(read::withFilter);
+                            return read.newScan().listPartitions();
+                        });
+
+        List<TupleDomain<TrinoColumnHandle>> matched = new ArrayList<>();
+        for (BinaryRow partition : partitions) {
+            Map<ColumnHandle, NullableValue> values = new HashMap<>();
+            for (int i = 0; i < partitionColumns.size(); i++) {
+                TrinoColumnHandle column = partitionColumns.get(i);
+                Type type = column.getTrinoType();
+                Object value = InternalRowUtils.get(partition, i, column.logicalType());
+                try {
+                    values.put(column, new NullableValue(type, toTrinoNativeValue(type, value)));
+                } catch (UnsupportedOperationException e) {
+                    return TupleDomain.all();
+                }
+            }
+            if (constraint.predicate().get().test(values)) {
+                matched.add(
+                        TupleDomain.fromFixedValues(values)
+                                .transformKeys(TrinoColumnHandle.class::cast));
+            }
+        }
+        return matched.isEmpty() ? TupleDomain.none() : TupleDomain.columnWiseUnion(matched);
+    }
+
     @Override
     public Optional<ProjectionApplicationResult<ConnectorTableHandle>> applyProjection(
             ConnectorSession session,
@@ -420,7 +819,8 @@ public abstract class TrinoMetadataBase implements ConnectorMetadata {
             ConnectorSession session, ConnectorTableHandle handle, long limit) {
         TrinoTableHandle table = (TrinoTableHandle) handle;
 
-        if (table.getLimit().isPresent() && table.getLimit().getAsLong() <= limit) {
+        if (table.getGroupingColumns().isPresent()
+                || (table.getLimit().isPresent() && table.getLimit().getAsLong() <= limit)) {
             return Optional.empty();
         }
 
@@ -443,4 +843,144 @@ public abstract class TrinoMetadataBase implements ConnectorMetadata {
 
         return Optional.of(new LimitApplicationResult<>(table, false, false));
     }
+
+    @Override
+    public Optional<SampleApplicationResult<ConnectorTableHandle>> applySample(
+            ConnectorSession session,
+            ConnectorTableHandle handle,
+            SampleType sampleType,
+            double sampleRatio) {
+        TrinoTableHandle table = (TrinoTableHandle) handle;
+        // whole data files are skipped, which cannot sample single rows
+        if (sampleType != SampleType.SYSTEM || table.getGroupingColumns().isPresent()) {
+            return Optional.empty();
+        }
+
+        double newSampleRatio = table.getSampleRatio().orElse(1.0) * sampleRatio;
+        table = table.copy(OptionalDouble.of(newSampleRatio));
+
+        return Optional.of(new SampleApplicationResult<>(table, false));
+    }
+
+    @Override
+    public Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle handle,
+            List<AggregateFunction> aggregates,
+            Map<String, ColumnHandle> assignments,
+            List<List<ColumnHandle>> groupingSets) {
+        TrinoTableHandle table = (TrinoTableHandle) handle;
+        // every row of an append-only table is visible, so the partitions of its data files are
+        // exactly the partitions having rows, as long as only partition keys are filtered
+        List<String> partitionKeys =
+                table.table().partitionKeys().stream().map(String::toLowerCase).collect(toList());
+        if (!(table.table() instanceof FileStoreTable)
+                || !table.table().primaryKeys().isEmpty()
+                || partitionKeys.isEmpty()
+                || table.getGroupingColumns().isPresent()
+                || table.getLimit().isPresent()
+                || table.getSampleRatio().isPresent()
+                || groupingSets.size() != 1
+                || !table.getFilter().getDomains().isPresent()
+                || !table.getFilter().getDomains().get().keySet().stream()
+                        .map(TrinoColumnHandle::getColumnName)
+                        .allMatch(partitionKeys::contains)) {
+            return Optional.empty();
+        }
+
+        List<TrinoColumnHandle> groupingColumns =
+                groupingSets.get(0).stream().map(TrinoColumnHandle.class::cast).collect(toList());
+        if (!groupingColumns.stream().allMatch(column -> isPartitionValue(column, partitionKeys))) {
+            return Optional.empty();
+        }
+
+        List<ConnectorExpression> projections = new ArrayList<>();
+        Map<TrinoColumnHandle, Assignment> newAssignments = new LinkedHashMap<>();
+        for (AggregateFunction aggregate : aggregates) {
+            String function = aggregate.getFunctionName();
+            List<ConnectorExpression> arguments = aggregateArguments(aggregate);
+            if (!(function.equals("min") || function.equals("max"))
+                    || arguments.size() != 1
+                    || !(arguments.get(0) instanceof Variable)
+                    || aggregate.getFilter().isPresent()
+                    || !aggregate.getSortItems().isEmpty()) {
+                return Optional.empty();
+            }
+
+            TrinoColumnHandle argument =
+                    (TrinoColumnHandle) assignments.get(((Variable) arguments.get(0)).getName());
+            if (!isPartitionValue(argument, partitionKeys)
+                    || !argument.getTrinoType().equals(aggregate.getOutputType())) {
+                return Optional.empty();
+            }
+
+            TrinoColumnHandle column = TrinoColumnHandle.aggregate(function, argument);
+            newAssignments.putIfAbsent(
+                    column, new Assignment(column.getColumnName(), column, column.getTrinoType()));
+            projections.add(new Variable(column.getColumnName(), column.getTrinoType()));
+        }
+
+        Map<ColumnHandle, ColumnHandle> groupingColumnMapping = new HashMap<>();
+        groupingColumns.forEach(column -> groupingColumnMapping.put(column, column));
+        return Optional.of(
+                new AggregationApplicationResult<>(
+                        table.withGroupingColumns(groupingColumns),
+                        projections,
+                        new ArrayList<>(newAssignments.values()),
+                        groupingColumnMapping,
+                        false));
+    }
+
+    protected List<ConnectorExpression> aggregateArguments(AggregateFunction aggregate) {
+        return aggregate.getArguments();
+    }
+
+    private static boolean isPartitionValue(TrinoColumnHandle column, List<String> partitionKeys) {
+        Type type = column.getTrinoType();
+        return partitionKeys.contains(column.getColumnName())
+                && (type instanceof BooleanType
+                        || type instanceof TinyintType
+                        || type instanceof SmallintType
+                        || type instanceof IntegerType
+                        || type instanceof BigintType
+                        || type instanceof DateType
+                        || type instanceof VarcharType
+                        || (type instanceof DecimalType && ((DecimalType) type).isShort()));
+    }
+
+    @Override
+    public Optional<ConnectorResolvedIndex> resolveIndex(
+            ConnectorSession session,
+            ConnectorTableHandle tableHandle,
+            Set<ColumnHandle> indexableColumns,
+            Set<ColumnHandle> outputColumns,
+            TupleDomain<ColumnHandle> tupleDomain) {
+        TrinoTableHandle trinoTableHandle = (TrinoTableHandle) tableHandle;
+        Table table = trinoTableHandle.table();
+        if (!TrinoSessionProperties.isIndexJoin(session)
+                || !TrinoTableUtils.isDataFileTable(table)
+                || table.primaryKeys().isEmpty()
+                || trinoTableHandle.getGroupingColumns().isPresent()) {
+            return Optional.empty();
+        }
+
+        // looking up the full primary key reads a single bucket per key, and only the data files
+        // whose key range contains the key
+        boolean lookupPrimaryKeys =
+                table.primaryKeys().stream()
+                        .map(key -> trinoTableHandle.columnHandle(key.toLowerCase()))
+                        .allMatch(indexableColumns::contains);
+        if (!lookupPrimaryKeys) {
+            return Optional.empty();
+        }
+
+        TrinoTableHandle indexTableHandle =
+                trinoTableHandle.copy(
+                        trinoTableHandle
+                                .getFilter()
+                                .intersect(
+                                        tupleDomain.transformKeys(TrinoColumnHandle.class::cast)));
+        return Optional.of(
+                new ConnectorResolvedIndex(new TrinoIndexHandle(indexTableHandle), tupleDomain));
+    }
 }
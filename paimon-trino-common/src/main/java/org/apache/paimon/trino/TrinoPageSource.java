@@ -25,6 +25,7 @@ import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.ConnectorPageSource;
 
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalLong;
 
 /** Trino {@link ConnectorPageSource}. */
@@ -33,12 +34,21 @@ public class TrinoPageSource extends TrinoPageSourceBase {
     public TrinoPageSource(
             RecordReader<InternalRow> reader,
             List<ColumnHandle> projectedColumns,
+            Map<Integer, Object> constantColumns,
             OptionalLong limit) {
-        super(reader, projectedColumns, limit);
+        super(reader, projectedColumns, constantColumns, limit);
+    }
+
+    public TrinoPageSource(
+            long rowCount,
+            List<ColumnHandle> projectedColumns,
+            Map<Integer, Object> constantColumns,
+            OptionalLong limit) {
+        super(rowCount, projectedColumns, constantColumns, limit);
     }
 
     @Override
     public long getMemoryUsage() {
-        return 0;
+        return getBufferedBytes();
     }
 }
@@ -34,7 +34,9 @@ import io.airlift.slice.Slice;
 import io.trino.spi.Page;
 import io.trino.spi.PageBuilder;
 import io.trino.spi.TrinoException;
+import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.RunLengthEncodedBlock;
 import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.type.ArrayType;
@@ -52,9 +54,14 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static io.airlift.slice.Slices.wrappedBuffer;
 import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
@@ -74,6 +81,7 @@ import static io.trino.spi.type.TimestampType.TIMESTAMP_SECONDS;
 import static io.trino.spi.type.TimestampWithTimeZoneType.TIMESTAMP_TZ_MILLIS;
 import static io.trino.spi.type.Timestamps.MICROSECONDS_PER_MILLISECOND;
 import static io.trino.spi.type.TinyintType.TINYINT;
+import static io.trino.spi.type.TypeUtils.readNativeValue;
 import static java.lang.String.format;
 import static org.apache.paimon.utils.Preconditions.checkArgument;
 
@@ -82,27 +90,93 @@ public abstract class TrinoPageSourceBase implements ConnectorPageSource {
 
     private static final int ROWS_PER_REQUEST = 4096;
 
-    private final CloseableIterator<InternalRow> iterator;
+    // null if the page source only produces positions, see rowCount
+    @Nullable private final CloseableIterator<InternalRow> iterator;
+    // the reader of the iterator if it prefetches the next splits, to report their first batches
+    @Nullable private final TrinoPrefetchingRecordReader prefetchingReader;
+    private final long rowCount;
     private final OptionalLong limit;
     private final PageBuilder pageBuilder;
     private final List<Type> columnTypes;
     private final List<DataType> logicalTypes;
+    private final int channelCount;
+    // channel -> type and value of the columns which are constant, such as partition keys
+    private final Map<Integer, Type> constantTypes;
+    private final Map<Integer, Object> constantValues;
 
     private boolean isFinished = false;
     private long numReturn = 0;
 
+    // null if the pages are read on the driver thread, see enableReadAhead
+    @Nullable private ReadAhead readAhead;
+
+    /**
+     * Creates a page source whose channels are the projected columns. The columns of {@code
+     * constantColumns}, keyed by channel, are not read but filled with their constant value, the
+     * reader only produces the other projected columns.
+     */
     public TrinoPageSourceBase(
             RecordReader<InternalRow> reader,
             List<ColumnHandle> projectedColumns,
+            Map<Integer, Object> constantColumns,
+            OptionalLong limit) {
+        this(
+                reader.toCloseableIterator(),
+                reader instanceof TrinoPrefetchingRecordReader
+                        ? (TrinoPrefetchingRecordReader) reader
+                        : null,
+                -1,
+                projectedColumns,
+                constantColumns,
+                limit);
+    }
+
+    /**
+     * Creates a page source which produces {@code rowCount} positions without reading any data,
+     * this is used when no column or only constant columns are projected, e.g. {@code count(*)}.
+     */
+    public TrinoPageSourceBase(
+            long rowCount,
+            List<ColumnHandle> projectedColumns,
+            Map<Integer, Object> constantColumns,
+            OptionalLong limit) {
+        this(null, null, rowCount, projectedColumns, constantColumns, limit);
+        checkArgument(
+                columnTypes.isEmpty(), "Only constant columns can be projected without reading");
+    }
+
+    private TrinoPageSourceBase(
+            @Nullable CloseableIterator<InternalRow> iterator,
+            @Nullable TrinoPrefetchingRecordReader prefetchingReader,
+            long rowCount,
+            List<ColumnHandle> projectedColumns,
+            Map<Integer, Object> constantColumns,
             OptionalLong limit) {
-        this.iterator = reader.toCloseableIterator();
+        this.iterator = iterator;
+        this.prefetchingReader = prefetchingReader;
+        this.rowCount = rowCount;
         this.limit = limit;
         this.columnTypes = new ArrayList<>();
         this.logicalTypes = new ArrayList<>();
-        for (ColumnHandle handle : projectedColumns) {
-            TrinoColumnHandle trinoColumnHandle = (TrinoColumnHandle) handle;
-            columnTypes.add(trinoColumnHandle.getTrinoType());
-            logicalTypes.add(trinoColumnHandle.logicalType());
+        this.channelCount = projectedColumns.size();
+        this.constantTypes = new HashMap<>();
+        this.constantValues = new HashMap<>();
+        for (int channel = 0; channel < projectedColumns.size(); channel++) {
+            TrinoColumnHandle trinoColumnHandle = (TrinoColumnHandle) projectedColumns.get(channel);
+            Type type = trinoColumnHandle.getTrinoType();
+            if (constantColumns.containsKey(channel)) {
+                BlockBuilder builder = type.createBlockBuilder(null, 1);
+                appendTo(
+                        type,
+                        trinoColumnHandle.logicalType(),
+                        constantColumns.get(channel),
+                        builder);
+                constantTypes.put(channel, type);
+                constantValues.put(channel, readNativeValue(type, builder.build(), 0));
+            } else {
+                columnTypes.add(type);
+                logicalTypes.add(trinoColumnHandle.logicalType());
+            }
         }
 
         this.pageBuilder = new PageBuilder(columnTypes);
@@ -118,13 +192,45 @@ public abstract class TrinoPageSourceBase implements ConnectorPageSource {
         return 0;
     }
 
+    /**
+     * Reads up to {@code maxBufferedPages} pages ahead on the {@code executor}, so that the driver
+     * thread does not wait for I/O in {@link #getNextPage}, but is blocked by {@link #isBlocked}
+     * until a page is ready. Must be called before the first page is read, page sources which do
+     * not read any data are not affected.
+     */
+    public void enableReadAhead(Executor executor, int maxBufferedPages) {
+        checkArgument(maxBufferedPages > 0, "Max buffered pages must be positive");
+        if (iterator != null) {
+            this.readAhead = new ReadAhead(executor, maxBufferedPages);
+        }
+    }
+
+    /**
+     * Returns the bytes read ahead of the driver: the pages which it has not taken yet and the
+     * first batches of the prefetched splits.
+     */
+    protected long getBufferedBytes() {
+        return (readAhead == null ? 0 : readAhead.getBufferedBytes())
+                + (prefetchingReader == null ? 0 : prefetchingReader.getMemoryUsage());
+    }
+
     @Override
     public boolean isFinished() {
-        return isFinished;
+        return readAhead == null ? isFinished : readAhead.isFinished();
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked() {
+        return readAhead == null ? NOT_BLOCKED : readAhead.isBlocked();
     }
 
     @Override
     public Page getNextPage() {
+        return readAhead == null ? readPage() : readAhead.nextPage();
+    }
+
+    @Nullable
+    private Page readPage() {
         return ClassLoaderUtils.runWithContextClassLoader(
                 () -> {
                     try {
@@ -138,6 +244,10 @@ public abstract class TrinoPageSourceBase implements ConnectorPageSource {
 
     @Nullable
     private Page nextPage() throws IOException {
+        if (iterator == null) {
+            return nextPositionsPage();
+        }
+
         int count = 0;
         while (count < ROWS_PER_REQUEST && !pageBuilder.isFull()) {
             if (limit.isPresent() && numReturn + count >= limit.getAsLong()) {
@@ -166,6 +276,20 @@ public abstract class TrinoPageSourceBase implements ConnectorPageSource {
         return returnPage(count);
     }
 
+    @Nullable
+    private Page nextPositionsPage() {
+        long remaining = rowCount - numReturn;
+        if (limit.isPresent()) {
+            remaining = Math.min(remaining, limit.getAsLong() - numReturn);
+        }
+        int count = (int) Math.min(Math.max(remaining, 0), ROWS_PER_REQUEST);
+        if (count >= remaining) {
+            isFinished = true;
+        }
+        pageBuilder.declarePositions(count);
+        return returnPage(count);
+    }
+
     private Page returnPage(int count) {
         if (count == 0) {
             return null;
@@ -173,11 +297,35 @@ public abstract class TrinoPageSourceBase implements ConnectorPageSource {
         numReturn += count;
         Page page = pageBuilder.build();
         pageBuilder.reset();
-        return page;
+        if (constantTypes.isEmpty()) {
+            return page;
+        }
+
+        Block[] blocks = new Block[channelCount];
+        int readChannel = 0;
+        for (int channel = 0; channel < channelCount; channel++) {
+            blocks[channel] =
+                    constantTypes.containsKey(channel)
+                            ? RunLengthEncodedBlock.create(
+                                    constantTypes.get(channel), constantValues.get(channel), count)
+                            : page.getBlock(readChannel++);
+        }
+        return new Page(count, blocks);
     }
 
     @Override
     public void close() throws IOException {
+        if (readAhead != null && !readAhead.close()) {
+            // the iterator is closed by the running read ahead task
+            return;
+        }
+        closeIterator();
+    }
+
+    private void closeIterator() throws IOException {
+        if (iterator == null) {
+            return;
+        }
         try {
             this.iterator.close();
         } catch (Exception e) {
@@ -327,4 +475,130 @@ public abstract class TrinoPageSourceBase implements ConnectorPageSource {
         throw new TrinoException(
                 GENERIC_INTERNAL_ERROR, "Unhandled type for Block: " + type.getTypeSignature());
     }
+
+    /**
+     * Reads pages into a bounded buffer on a background task. At most one task reads the iterator
+     * at a time, it stops when the buffer is full and is scheduled again when the driver takes a
+     * page.
+     */
+    private class ReadAhead {
+
+        private final Executor executor;
+        private final int maxBufferedPages;
+        private final ArrayDeque<Page> pages;
+
+        // guarded by this
+        private long bufferedBytes = 0;
+        private boolean reading = false;
+        private boolean finished = false;
+        private boolean closed = false;
+        @Nullable private Throwable failure;
+        private CompletableFuture<?> notEmpty = CompletableFuture.completedFuture(null);
+
+        private ReadAhead(Executor executor, int maxBufferedPages) {
+            this.executor = executor;
+            this.maxBufferedPages = maxBufferedPages;
+            this.pages = new ArrayDeque<>(maxBufferedPages);
+        }
+
+        private synchronized boolean isFinished() {
+            return finished && failure == null && pages.isEmpty();
+        }
+
+        private synchronized CompletableFuture<?> isBlocked() {
+            if (!pages.isEmpty() || finished || failure != null || closed) {
+                return NOT_BLOCKED;
+            }
+            if (notEmpty.isDone()) {
+                notEmpty = new CompletableFuture<>();
+            }
+            schedule();
+            return notEmpty;
+        }
+
+        @Nullable
+        private synchronized Page nextPage() {
+            if (failure != null) {
+                if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                }
+                throw new RuntimeException(failure);
+            }
+            Page page = pages.poll();
+            if (page != null) {
+                bufferedBytes -= page.getRetainedSizeInBytes();
+            }
+            schedule();
+            return page;
+        }
+
+        private synchronized long getBufferedBytes() {
+            return bufferedBytes;
+        }
+
+        /** Returns true if the iterator can be closed by the caller. */
+        private synchronized boolean close() {
+            closed = true;
+            pages.clear();
+            bufferedBytes = 0;
+            notEmpty.complete(null);
+            return !reading;
+        }
+
+        private void schedule() {
+            if (!reading && !finished && !closed && pages.size() < maxBufferedPages) {
+                reading = true;
+                executor.execute(this::read);
+            }
+        }
+
+        private void read() {
+            // whether the page source was closed while reading, then the iterator is closed here
+            boolean closeIterator;
+            while (true) {
+                synchronized (this) {
+                    if (closed || pages.size() >= maxBufferedPages) {
+                        reading = false;
+                        closeIterator = closed;
+                        break;
+                    }
+                }
+
+                Page page;
+                try {
+                    page = readPage();
+                } catch (Throwable t) {
+                    synchronized (this) {
+                        failure = t;
+                        reading = false;
+                        closeIterator = closed;
+                        notEmpty.complete(null);
+                        break;
+                    }
+                }
+
+                synchronized (this) {
+                    if (page != null) {
+                        pages.add(page);
+                        bufferedBytes += page.getRetainedSizeInBytes();
+                    }
+                    finished = TrinoPageSourceBase.this.isFinished;
+                    notEmpty.complete(null);
+                    if (finished) {
+                        reading = false;
+                        closeIterator = closed;
+                        break;
+                    }
+                }
+            }
+
+            if (closeIterator) {
+                try {
+                    closeIterator();
+                } catch (IOException ignored) {
+                    // the page source is closed already, there is no one to report to
+                }
+            }
+        }
+    }
 }
@@ -18,10 +18,25 @@
 
 package org.apache.paimon.trino;
 
+import org.apache.paimon.CoreOptions;
+import org.apache.paimon.data.BinaryRow;
+import org.apache.paimon.data.InternalRow;
+import org.apache.paimon.io.DataFileMeta;
+import org.apache.paimon.options.Options;
+import org.apache.paimon.reader.RecordReader;
+import org.apache.paimon.shade.guava30.com.google.common.cache.Cache;
+import org.apache.paimon.shade.guava30.com.google.common.cache.CacheBuilder;
 import org.apache.paimon.table.Table;
+import org.apache.paimon.table.source.DataSplit;
 import org.apache.paimon.table.source.ReadBuilder;
+import org.apache.paimon.table.source.Split;
+import org.apache.paimon.table.source.TableRead;
+import org.apache.paimon.types.DataTypeRoot;
 import org.apache.paimon.types.RowType;
+import org.apache.paimon.utils.ExecutorThreadFactory;
+import org.apache.paimon.utils.InternalRowUtils;
 
+import io.trino.spi.PageBuilder;
 import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.connector.ConnectorPageSourceProvider;
@@ -30,18 +45,66 @@ import io.trino.spi.connector.ConnectorSplit;
 import io.trino.spi.connector.ConnectorTableHandle;
 import io.trino.spi.connector.ConnectorTransactionHandle;
 import io.trino.spi.connector.DynamicFilter;
+import io.trino.spi.connector.FixedPageSource;
 import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.type.Type;
+
+import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static io.trino.spi.type.TypeUtils.writeNativeValue;
 import static org.apache.paimon.trino.ClassLoaderUtils.runWithContextClassLoader;
+import static org.apache.paimon.trino.TrinoTypeUtils.toTrinoNativeValue;
+import static org.apache.paimon.utils.Preconditions.checkArgument;
 
 /** Trino {@link ConnectorPageSourceProvider}. */
 public class TrinoPageSourceProvider implements ConnectorPageSourceProvider {
 
+    private static final int MAX_PREPARED_READS = 1000;
+
+    // reads prepared per table handle and columns, so that the splits of a query do not deserialize
+    // the table and compute the projection and the filter again
+    private final Cache<ReadKey, PreparedRead> preparedReads =
+            CacheBuilder.newBuilder()
+                    .maximumSize(MAX_PREPARED_READS)
+                    .expireAfterAccess(10, TimeUnit.MINUTES)
+                    .build();
+
+    // reads pages ahead of the drivers, a page source has at most one task running at a time
+    private final ExecutorService readExecutor;
+    // opens the readers of the next splits, a read ahead task may wait for these at the end of a
+    // split, so they must not queue behind the read ahead tasks
+    private final ExecutorService prefetchExecutor;
+
+    public TrinoPageSourceProvider(Options options) {
+        int readThreads =
+                options.getOptional(TrinoConnectorOptions.READ_THREADS)
+                        .orElse(Runtime.getRuntime().availableProcessors());
+        checkArgument(readThreads > 0, "Read threads must be positive");
+        this.readExecutor =
+                Executors.newFixedThreadPool(readThreads, new ExecutorThreadFactory("paimon-read"));
+        this.prefetchExecutor =
+                Executors.newFixedThreadPool(
+                        readThreads, new ExecutorThreadFactory("paimon-prefetch"));
+    }
+
     @Override
     public ConnectorPageSource createPageSource(
             ConnectorTransactionHandle transaction,
@@ -51,46 +114,358 @@ public class TrinoPageSourceProvider implements ConnectorPageSourceProvider {
             List<ColumnHandle> columns,
             DynamicFilter dynamicFilter) {
         TrinoTableHandle trinoTableHandle = (TrinoTableHandle) tableHandle;
-        Table table = trinoTableHandle.tableWithDynamicOptions(session);
+        if (trinoTableHandle.getGroupingColumns().isPresent()) {
+            return aggregatePartitions(
+                    trinoTableHandle.tableWithDynamicOptions(session),
+                    trinoTableHandle.getGroupingColumns().get(),
+                    ((TrinoSplit) split).decodeSplits(),
+                    columns);
+        }
         return runWithContextClassLoader(
-                () ->
-                        createPageSource(
-                                table,
-                                trinoTableHandle.getFilter(),
-                                (TrinoSplit) split,
-                                columns,
-                                trinoTableHandle.getLimit()),
+                () -> {
+                    PreparedRead read;
+                    try {
+                        read =
+                                preparedReads.get(
+                                        new ReadKey(
+                                                trinoTableHandle,
+                                                TrinoTableHandle.dynamicOptions(session),
+                                                columns),
+                                        () ->
+                                                new PreparedRead(
+                                                        trinoTableHandle.tableWithDynamicOptions(
+                                                                session),
+                                                        trinoTableHandle.getFilter(),
+                                                        columns));
+                    } catch (ExecutionException e) {
+                        throw new RuntimeException(e);
+                    }
+                    TrinoPageSource pageSource =
+                            createPageSource(
+                                    read,
+                                    ((TrinoSplit) split).decodeSplits(),
+                                    columns,
+                                    trinoTableHandle.getLimit(),
+                                    TrinoSessionProperties.getPrefetchSplits(session));
+                    int readAheadPages = TrinoSessionProperties.getReadAheadPages(session);
+                    if (readAheadPages > 0) {
+                        pageSource.enableReadAhead(readExecutor, readAheadPages);
+                    }
+                    return pageSource;
+                },
                 TrinoPageSourceProvider.class.getClassLoader());
     }
 
-    private ConnectorPageSource createPageSource(
+    /** Stops the read threads, the pages which are read ahead are not completed. */
+    public void shutdown() {
+        readExecutor.shutdownNow();
+        prefetchExecutor.shutdownNow();
+    }
+
+    ConnectorPageSource createPageSource(
             Table table,
             TupleDomain<TrinoColumnHandle> filter,
-            TrinoSplit split,
+            List<Split> splits,
             List<ColumnHandle> columns,
             OptionalLong limit) {
-        ReadBuilder read = table.newReadBuilder();
+        return createPageSource(
+                new PreparedRead(table, filter, columns), splits, columns, limit, 0);
+    }
+
+    private TrinoPageSource createPageSource(
+            PreparedRead read,
+            List<Split> splits,
+            List<ColumnHandle> columns,
+            OptionalLong limit,
+            int prefetchSplits) {
+        Map<Integer, Object> partitionColumns =
+                partitionColumns(read.table, splits, read.projectedFields);
+        if (partitionColumns.size() == read.projectedFields.size()
+                && positionsOnly(read.table, read.filter, splits)) {
+            long rowCount =
+                    splits.stream()
+                            .flatMap(s -> ((DataSplit) s).dataFiles().stream())
+                            .mapToLong(DataFileMeta::rowCount)
+                            .sum();
+            return new TrinoPageSource(rowCount, columns, partitionColumns, limit);
+        }
+
+        TableRead tableRead = read.readBuilder(partitionColumns.keySet()).newRead().executeFilter();
+        RecordReader<InternalRow> reader;
+        if (prefetchSplits > 0 && splits.size() > 1) {
+            reader =
+                    new TrinoPrefetchingRecordReader(
+                            tableRead,
+                            splits,
+                            CoreOptions.fromMap(read.table.options()).readBatchSize(),
+                            prefetchExecutor,
+                            prefetchSplits);
+        } else {
+            try {
+                reader = tableRead.createReader(splits);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return new TrinoPageSource(reader, columns, partitionColumns, limit);
+    }
+
+    /**
+     * Returns a row per group of the partitions of the splits, whose columns are grouping columns
+     * or aggregates of partition keys, see {@link TrinoMetadataBase#applyAggregation}. Without
+     * grouping columns there is a single group, even if there is no partition.
+     */
+    private static ConnectorPageSource aggregatePartitions(
+            Table table,
+            List<TrinoColumnHandle> groupingColumns,
+            List<Split> splits,
+            List<ColumnHandle> columns) {
+        List<String> partitionKeys =
+                table.partitionKeys().stream()
+                        .map(String::toLowerCase)
+                        .collect(Collectors.toList());
         RowType rowType = table.rowType();
         List<String> fieldNames = FieldNameUtils.fieldNames(rowType);
-        List<String> projectedFields =
+        Map<List<Object>, List<BinaryRow>> groups = new LinkedHashMap<>();
+        if (groupingColumns.isEmpty()) {
+            groups.put(Collections.emptyList(), new ArrayList<>());
+        }
+        for (Split split : splits) {
+            BinaryRow partition = ((DataSplit) split).partition();
+            List<Object> key = new ArrayList<>();
+            for (TrinoColumnHandle column : groupingColumns) {
+                key.add(partitionValue(partition, column.getColumnName(), partitionKeys, rowType));
+            }
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(partition);
+        }
+
+        List<Type> types =
                 columns.stream()
                         .map(TrinoColumnHandle.class::cast)
-                        .map(TrinoColumnHandle::getColumnName)
+                        .map(TrinoColumnHandle::getTrinoType)
+                        .collect(Collectors.toList());
+        PageBuilder pageBuilder = new PageBuilder(types);
+        for (Map.Entry<List<Object>, List<BinaryRow>> group : groups.entrySet()) {
+            pageBuilder.declarePosition();
+            for (int channel = 0; channel < columns.size(); channel++) {
+                TrinoColumnHandle column = (TrinoColumnHandle) columns.get(channel);
+                Object value;
+                if (column.isAggregate()) {
+                    String field = column.aggregateArgument();
+                    DataTypeRoot typeRoot =
+                            rowType.getTypeAt(fieldNames.indexOf(field)).getTypeRoot();
+                    boolean min = column.aggregateFunction().equals("min");
+                    value = null;
+                    for (BinaryRow partition : group.getValue()) {
+                        Object candidate = partitionValue(partition, field, partitionKeys, rowType);
+                        if (candidate == null) {
+                            continue;
+                        }
+                        int comparison =
+                                value == null
+                                        ? 0
+                                        : InternalRowUtils.compare(candidate, value, typeRoot);
+                        if (value == null || (min ? comparison < 0 : comparison > 0)) {
+                            value = candidate;
+                        }
+                    }
+                } else {
+                    value = group.getKey().get(groupingColumns.indexOf(column));
+                }
+                writeNativeValue(
+                        types.get(channel),
+                        pageBuilder.getBlockBuilder(channel),
+                        toTrinoNativeValue(types.get(channel), value));
+            }
+        }
+        return new FixedPageSource(Collections.singletonList(pageBuilder.build()));
+    }
+
+    @Nullable
+    private static Object partitionValue(
+            BinaryRow partition, String field, List<String> partitionKeys, RowType rowType) {
+        return InternalRowUtils.get(
+                partition,
+                partitionKeys.indexOf(field),
+                rowType.getTypeAt(FieldNameUtils.fieldNames(rowType).indexOf(field)));
+    }
+
+    /**
+     * Returns whether the rows of the splits can be counted from the file metadata: for append-only
+     * tables and read optimized primary key tables every row of a data file is visible, and the
+     * filter on partition keys has already been applied exactly when planning the splits. Other
+     * primary key tables need to merge the records.
+     */
+    private static boolean positionsOnly(
+            Table table, TupleDomain<TrinoColumnHandle> filter, List<Split> splits) {
+        if (!TrinoTableUtils.isDataFileTable(table) || TrinoTableUtils.isMergeRequired(table)) {
+            return false;
+        }
+
+        List<String> partitionKeys =
+                table.partitionKeys().stream()
+                        .map(String::toLowerCase)
                         .collect(Collectors.toList());
-        if (!fieldNames.equals(projectedFields)) {
-            int[] projected = projectedFields.stream().mapToInt(fieldNames::indexOf).toArray();
-            read.withProjection(projected);
+        boolean partitionFilterOnly =
+                filter.getDomains()
+                        .map(
+                                domains ->
+                                        domains.keySet().stream()
+                                                .map(TrinoColumnHandle::getColumnName)
+                                                .allMatch(partitionKeys::contains))
+                        .orElse(false);
+        return partitionFilterOnly
+                && splits.stream()
+                        .allMatch(
+                                split ->
+                                        split instanceof DataSplit
+                                                && !((DataSplit) split).isStreaming()
+                                                && ((DataSplit) split).beforeFiles().isEmpty());
+    }
+
+    /**
+     * Returns the values of the projected partition keys, keyed by channel, if all splits belong to
+     * the same partition. These columns are constant and need not be read from the data files.
+     */
+    private static Map<Integer, Object> partitionColumns(
+            Table table, List<Split> splits, List<String> projectedFields) {
+        List<String> partitionKeys =
+                table.partitionKeys().stream()
+                        .map(String::toLowerCase)
+                        .collect(Collectors.toList());
+        if (partitionKeys.isEmpty() || splits.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        BinaryRow partition = null;
+        for (Split split : splits) {
+            if (!(split instanceof DataSplit)
+                    || (partition != null && !partition.equals(((DataSplit) split).partition()))) {
+                return Collections.emptyMap();
+            }
+            partition = ((DataSplit) split).partition();
+        }
+
+        RowType rowType = table.rowType();
+        List<String> fieldNames = FieldNameUtils.fieldNames(rowType);
+        Map<Integer, Object> partitionColumns = new HashMap<>();
+        for (int channel = 0; channel < projectedFields.size(); channel++) {
+            String field = projectedFields.get(channel);
+            int index = partitionKeys.indexOf(field);
+            if (index >= 0) {
+                partitionColumns.put(
+                        channel,
+                        InternalRowUtils.get(
+                                partition, index, rowType.getTypeAt(fieldNames.indexOf(field))));
+            }
+        }
+        return partitionColumns;
+    }
+
+    /** Key of a read prepared for the columns of a table handle. */
+    private static class ReadKey {
+
+        private final TrinoTableHandle tableHandle;
+        private final Map<String, String> dynamicOptions;
+        private final List<String> columnNames;
+
+        private ReadKey(
+                TrinoTableHandle tableHandle,
+                Map<String, String> dynamicOptions,
+                List<ColumnHandle> columns) {
+            this.tableHandle = tableHandle;
+            this.dynamicOptions = dynamicOptions;
+            this.columnNames =
+                    columns.stream()
+                            .map(TrinoColumnHandle.class::cast)
+                            .map(TrinoColumnHandle::getColumnName)
+                            .collect(Collectors.toList());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ReadKey that = (ReadKey) o;
+            return tableHandle.equals(that.tableHandle)
+                    && dynamicOptions.equals(that.dynamicOptions)
+                    && columnNames.equals(that.columnNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableHandle, dynamicOptions, columnNames);
+        }
+    }
+
+    /**
+     * The table, projection and filter of the reads of some columns of a table handle. The fields
+     * read depend on which partition keys are constant in the splits, see {@link
+     * #partitionColumns}, so a {@link ReadBuilder} is prepared for each such set of channels.
+     */
+    private static class PreparedRead {
+
+        private final Table table;
+        private final TupleDomain<TrinoColumnHandle> filter;
+        private final List<String> projectedFields;
+        private final Map<Set<Integer>, ReadBuilder> readBuilders = new ConcurrentHashMap<>();
+
+        private PreparedRead(
+                Table table, TupleDomain<TrinoColumnHandle> filter, List<ColumnHandle> columns) {
+            this.table = table;
+            this.filter = filter;
+            this.projectedFields =
+                    columns.stream()
+                            .map(TrinoColumnHandle.class::cast)
+                            .map(TrinoColumnHandle::getColumnName)
+                            .collect(Collectors.toList());
         }
 
-        new TrinoFilterConverter(rowType).convert(filter).ifPresent(read::withFilter);
+        private ReadBuilder readBuilder(Set<Integer> constantChannels) {
+            return readBuilders.computeIfAbsent(constantChannels, this::createReadBuilder);
+        }
+
+        private ReadBuilder createReadBuilder(Set<Integer> constantChannels) {
+            ReadBuilder read = table.newReadBuilder();
+            RowType rowType = table.rowType();
+            List<String> fieldNames = FieldNameUtils.fieldNames(rowType);
+            Map<String, Integer> fieldIndexes = new HashMap<>();
+            for (int i = 0; i < fieldNames.size(); i++) {
+                fieldIndexes.put(fieldNames.get(i), i);
+            }
+            Set<String> readFields = new LinkedHashSet<>();
+            for (int channel = 0; channel < projectedFields.size(); channel++) {
+                if (!constantChannels.contains(channel)) {
+                    readFields.add(projectedFields.get(channel));
+                }
+            }
+
+            // the reader only evaluates the filter on the fields it reads, also read the filtered
+            // fields which are not projected, e.g. because the filter is enforced, after the
+            // others
+            List<String> partitionKeys =
+                    table.partitionKeys().stream()
+                            .map(String::toLowerCase)
+                            .collect(Collectors.toList());
+            filter.getDomains()
+                    .ifPresent(
+                            domains ->
+                                    domains.keySet().stream()
+                                            .map(TrinoColumnHandle::getColumnName)
+                                            .filter(fieldIndexes::containsKey)
+                                            .filter(field -> !partitionKeys.contains(field))
+                                            .forEach(readFields::add));
+            if (!fieldNames.equals(new ArrayList<>(readFields))) {
+                int[] projected = readFields.stream().mapToInt(fieldIndexes::get).toArray();
+                read.withProjection(projected);
+            }
 
-        try {
-            return new TrinoPageSource(
-                    read.newRead().executeFilter().createReader(split.decodeSplit()),
-                    columns,
-                    limit);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            new TrinoFilterConverter(rowType).convert(filter).ifPresent(read::withFilter);
+            return read;
         }
     }
 }
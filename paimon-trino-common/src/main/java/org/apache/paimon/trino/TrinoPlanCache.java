@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.Snapshot;
+import org.apache.paimon.data.BinaryRow;
+import org.apache.paimon.io.DataFileMeta;
+import org.apache.paimon.options.MemorySize;
+import org.apache.paimon.shade.guava30.com.google.common.cache.Cache;
+import org.apache.paimon.shade.guava30.com.google.common.cache.CacheBuilder;
+import org.apache.paimon.shade.guava30.com.google.common.collect.ImmutableList;
+import org.apache.paimon.shade.guava30.com.google.common.collect.ImmutableMap;
+import org.apache.paimon.table.DataTable;
+import org.apache.paimon.table.Table;
+import org.apache.paimon.table.source.DataSplit;
+import org.apache.paimon.table.source.Split;
+import org.apache.paimon.utils.SnapshotManager;
+
+import io.trino.spi.predicate.TupleDomain;
+
+import javax.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Function;
+
+import static org.apache.paimon.CoreOptions.SCAN_MODE;
+import static org.apache.paimon.CoreOptions.SCAN_SNAPSHOT_ID;
+import static org.apache.paimon.CoreOptions.StartupMode.FROM_SNAPSHOT;
+
+/**
+ * Coordinator-wide cache of the splits planned, and of the partitions listed, from the manifests of
+ * a table snapshot.
+ *
+ * <p>Snapshots, manifest lists and manifest files are immutable once committed, so the entries
+ * decoded for a snapshot never change. Entries are keyed by the manifest list file names of the
+ * snapshot, which are unique per snapshot, and evicted least-recently-used once the estimated
+ * memory of all cached splits exceeds the configured budget.
+ */
+public class TrinoPlanCache {
+
+    private static final int SPLIT_OVERHEAD_BYTES = 128;
+    private static final int FILE_OVERHEAD_BYTES = 256;
+    private static final int PARTITION_OVERHEAD_BYTES = 64;
+
+    @Nullable private final Cache<PlanKey, List<?>> cache;
+
+    public TrinoPlanCache(MemorySize maxMemory) {
+        this.cache =
+                maxMemory.getBytes() <= 0
+                        ? null
+                        : CacheBuilder.newBuilder()
+                                .maximumWeight(maxMemory.getBytes())
+                                .weigher(
+                                        (PlanKey key, List<?> values) ->
+                                                (int)
+                                                        Math.min(
+                                                                estimateMemory(values),
+                                                                Integer.MAX_VALUE))
+                                .build();
+    }
+
+    /**
+     * Returns the splits of the given table, planned by {@code planner} only if they are not cached
+     * yet. Tables which do not read a single fixed snapshot are always planned.
+     */
+    public List<Split> plan(
+            Table table,
+            TupleDomain<TrinoColumnHandle> filter,
+            OptionalLong limit,
+            Function<Table, List<Split>> planner) {
+        return get(table, false, filter, limit, planner);
+    }
+
+    /**
+     * Returns the partitions of the given table which match the filter on the partition keys,
+     * listed by {@code lister} only if they are not cached yet. Tables which do not read a single
+     * fixed snapshot are always listed.
+     */
+    public List<BinaryRow> partitions(
+            Table table,
+            TupleDomain<TrinoColumnHandle> partitionFilter,
+            Function<Table, List<BinaryRow>> lister) {
+        return get(table, true, partitionFilter, OptionalLong.empty(), lister);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> get(
+            Table table,
+            boolean partitions,
+            TupleDomain<TrinoColumnHandle> filter,
+            OptionalLong limit,
+            Function<Table, List<T>> loader) {
+        if (cache == null || !TrinoTableUtils.isDataFileTable(table)) {
+            return loader.apply(table);
+        }
+
+        DataTable dataTable = (DataTable) table;
+        Long snapshotId;
+        switch (dataTable.coreOptions().startupMode()) {
+            case LATEST_FULL:
+                snapshotId = dataTable.snapshotManager().latestSnapshotId();
+                if (snapshotId != null) {
+                    // pin the snapshot, a newer one may be committed while planning
+                    Map<String, String> pinned = new HashMap<>();
+                    pinned.put(SCAN_MODE.key(), FROM_SNAPSHOT.toString());
+                    pinned.put(SCAN_SNAPSHOT_ID.key(), String.valueOf(snapshotId));
+                    dataTable = (DataTable) dataTable.copy(pinned);
+                }
+                break;
+            case FROM_SNAPSHOT:
+            case FROM_SNAPSHOT_FULL:
+                snapshotId = dataTable.coreOptions().scanSnapshotId();
+                break;
+            default:
+                snapshotId = null;
+        }
+
+        SnapshotManager snapshotManager = dataTable.snapshotManager();
+        if (snapshotId == null || !snapshotManager.snapshotExists(snapshotId)) {
+            return loader.apply(table);
+        }
+
+        Snapshot snapshot = snapshotManager.snapshot(snapshotId);
+        PlanKey key =
+                new PlanKey(
+                        dataTable.location().toString(),
+                        dataTable.name(),
+                        snapshot.baseManifestList(),
+                        snapshot.deltaManifestList(),
+                        ImmutableMap.copyOf(table.options()),
+                        partitions,
+                        filter,
+                        limit);
+        List<T> values = (List<T>) cache.getIfPresent(key);
+        if (values == null) {
+            values = ImmutableList.copyOf(loader.apply(dataTable));
+            cache.put(key, values);
+        }
+        return values;
+    }
+
+    private static long estimateMemory(List<?> values) {
+        long bytes = 0;
+        for (Object value : values) {
+            if (value instanceof BinaryRow) {
+                bytes += PARTITION_OVERHEAD_BYTES + ((BinaryRow) value).getSizeInBytes();
+                continue;
+            }
+            bytes += SPLIT_OVERHEAD_BYTES;
+            if (value instanceof DataSplit) {
+                DataSplit split = (DataSplit) value;
+                for (DataFileMeta file : split.dataFiles()) {
+                    bytes +=
+                            FILE_OVERHEAD_BYTES
+                                    + 2L * file.fileName().length()
+                                    + file.minKey().getSizeInBytes()
+                                    + file.maxKey().getSizeInBytes()
+                                    + file.keyStats().min().getSizeInBytes()
+                                    + file.keyStats().max().getSizeInBytes()
+                                    + file.valueStats().min().getSizeInBytes()
+                                    + file.valueStats().max().getSizeInBytes();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /** Key of the splits planned, or of the partitions listed, for a snapshot of a table. */
+    private static class PlanKey {
+
+        private final String location;
+        private final String tableName;
+        private final String baseManifestList;
+        private final String deltaManifestList;
+        private final Map<String, String> options;
+        private final boolean partitions;
+        private final TupleDomain<TrinoColumnHandle> filter;
+        private final OptionalLong limit;
+
+        private PlanKey(
+                String location,
+                String tableName,
+                String baseManifestList,
+                String deltaManifestList,
+                Map<String, String> options,
+                boolean partitions,
+                TupleDomain<TrinoColumnHandle> filter,
+                OptionalLong limit) {
+            this.location = location;
+            this.tableName = tableName;
+            this.baseManifestList = baseManifestList;
+            this.deltaManifestList = deltaManifestList;
+            this.options = options;
+            this.partitions = partitions;
+            this.filter = filter;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PlanKey that = (PlanKey) o;
+            return location.equals(that.location)
+                    && tableName.equals(that.tableName)
+                    && baseManifestList.equals(that.baseManifestList)
+                    && deltaManifestList.equals(that.deltaManifestList)
+                    && options.equals(that.options)
+                    && partitions == that.partitions
+                    && filter.equals(that.filter)
+                    && limit.equals(that.limit);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                    location,
+                    tableName,
+                    baseManifestList,
+                    deltaManifestList,
+                    options,
+                    partitions,
+                    filter,
+                    limit);
+        }
+    }
+}
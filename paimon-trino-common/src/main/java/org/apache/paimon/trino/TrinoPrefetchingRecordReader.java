@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.paimon.trino;
+
+import org.apache.paimon.data.InternalRow;
+import org.apache.paimon.io.DataFileMeta;
+import org.apache.paimon.reader.RecordReader;
+import org.apache.paimon.table.source.DataSplit;
+import org.apache.paimon.table.source.Split;
+import org.apache.paimon.table.source.TableRead;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.paimon.utils.Preconditions.checkArgument;
+
+/**
+ * A {@link RecordReader} of splits, which opens the readers of the next splits in the background
+ * while the current split is read. Opening a reader reads the footers of its files, and the first
+ * batch of each reader is read too, so that the next splits do not wait for these round trips to
+ * the file system when they are reached.
+ */
+public class TrinoPrefetchingRecordReader implements RecordReader<InternalRow> {
+
+    private final TableRead read;
+    private final List<Split> splits;
+    private final int readBatchSize;
+    private final Executor executor;
+    private final int prefetchSplits;
+    // estimated bytes of the first batches which are read but not returned yet, see getMemoryUsage
+    private final AtomicLong firstBatchBytes = new AtomicLong();
+
+    // the readers opened for the next splits, in the order of the splits
+    private final ArrayDeque<CompletableFuture<PrefetchedReader>> prefetched;
+    // readers are opened one after another, as a table read is not thread safe
+    private CompletableFuture<?> lastOpened = CompletableFuture.completedFuture(null);
+    private int nextSplit = 0;
+
+    @Nullable private PrefetchedReader current;
+
+    public TrinoPrefetchingRecordReader(
+            TableRead read,
+            List<Split> splits,
+            int readBatchSize,
+            Executor executor,
+            int prefetchSplits) {
+        checkArgument(prefetchSplits > 0, "Prefetch splits must be positive");
+        this.read = read;
+        this.splits = splits;
+        this.readBatchSize = readBatchSize;
+        this.executor = executor;
+        this.prefetchSplits = prefetchSplits;
+        this.prefetched = new ArrayDeque<>(prefetchSplits);
+        prefetch();
+    }
+
+    @Nullable
+    @Override
+    public RecordIterator<InternalRow> readBatch() throws IOException {
+        while (true) {
+            if (current == null) {
+                if (prefetched.isEmpty()) {
+                    return null;
+                }
+                current = join(prefetched.poll());
+                prefetch();
+            }
+
+            RecordIterator<InternalRow> batch = current.readBatch();
+            if (batch != null) {
+                return batch;
+            }
+            current.reader.close();
+            current = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (CompletableFuture<PrefetchedReader> future : prefetched) {
+            future.thenAccept(PrefetchedReader::closeQuietly);
+        }
+        prefetched.clear();
+        if (current != null) {
+            current.reader.close();
+            current = null;
+        }
+    }
+
+    /**
+     * Returns the estimated bytes of the first batches read by the prefetched readers, which the
+     * caller has not taken yet. A batch is estimated by the share of its rows in the size of the
+     * first data file of its split.
+     */
+    public long getMemoryUsage() {
+        return firstBatchBytes.get();
+    }
+
+    private void prefetch() {
+        while (prefetched.size() < prefetchSplits && nextSplit < splits.size()) {
+            Split split = splits.get(nextSplit++);
+            CompletableFuture<PrefetchedReader> future =
+                    lastOpened.handleAsync(
+                            (ignored, failure) ->
+                                    ClassLoaderUtils.runWithContextClassLoader(
+                                            () -> open(split),
+                                            TrinoPrefetchingRecordReader.class.getClassLoader()),
+                            executor);
+            prefetched.add(future);
+            lastOpened = future;
+        }
+    }
+
+    private PrefetchedReader open(Split split) {
+        RecordReader<InternalRow> reader;
+        try {
+            reader = read.createReader(split);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            RecordIterator<InternalRow> firstBatch = reader.readBatch();
+            return new PrefetchedReader(
+                    reader, firstBatch, firstBatch == null ? 0 : estimateBatchBytes(split));
+        } catch (IOException e) {
+            closeQuietly(reader);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(reader);
+            throw e;
+        }
+    }
+
+    private long estimateBatchBytes(Split split) {
+        if (!(split instanceof DataSplit) || ((DataSplit) split).dataFiles().isEmpty()) {
+            return 0;
+        }
+        DataFileMeta file = ((DataSplit) split).dataFiles().get(0);
+        if (file.rowCount() == 0) {
+            return 0;
+        }
+        return file.fileSize() * Math.min(file.rowCount(), readBatchSize) / file.rowCount();
+    }
+
+    private static PrefetchedReader join(CompletableFuture<PrefetchedReader> future)
+            throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /** A reader whose first batch is read already. */
+    private class PrefetchedReader {
+
+        private final RecordReader<InternalRow> reader;
+        // null if the reader has no data
+        @Nullable private RecordIterator<InternalRow> firstBatch;
+        private final long firstBatchSize;
+        private boolean firstBatchReturned = false;
+
+        private PrefetchedReader(
+                RecordReader<InternalRow> reader,
+                @Nullable RecordIterator<InternalRow> firstBatch,
+                long firstBatchSize) {
+            this.reader = reader;
+            this.firstBatch = firstBatch;
+            this.firstBatchSize = firstBatchSize;
+            firstBatchBytes.addAndGet(firstBatchSize);
+        }
+
+        @Nullable
+        private RecordIterator<InternalRow> readBatch() throws IOException {
+            if (!firstBatchReturned) {
+                firstBatchReturned = true;
+                RecordIterator<InternalRow> batch = firstBatch;
+                firstBatch = null;
+                firstBatchBytes.addAndGet(-firstBatchSize);
+                return batch;
+            }
+            return reader.readBatch();
+        }
+
+        private void closeQuietly() {
+            if (firstBatch != null) {
+                firstBatch.releaseBatch();
+                firstBatch = null;
+                firstBatchBytes.addAndGet(-firstBatchSize);
+            }
+            TrinoPrefetchingRecordReader.closeQuietly(reader);
+        }
+    }
+
+    private static void closeQuietly(RecordReader<InternalRow> reader) {
+        try {
+            reader.close();
+        } catch (Exception ignored) {
+            // the split is not read anymore
+        }
+    }
+}
@@ -18,24 +18,45 @@
 
 package org.apache.paimon.trino;
 
+import org.apache.paimon.options.MemorySize;
 import org.apache.paimon.shade.guava30.com.google.common.collect.ImmutableList;
 
+import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.session.PropertyMetadata;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static io.trino.spi.StandardErrorCode.INVALID_SESSION_PROPERTY;
+import static io.trino.spi.session.PropertyMetadata.booleanProperty;
 import static io.trino.spi.session.PropertyMetadata.doubleProperty;
+import static io.trino.spi.session.PropertyMetadata.integerProperty;
 import static io.trino.spi.session.PropertyMetadata.longProperty;
+import static io.trino.spi.session.PropertyMetadata.stringProperty;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.lang.String.format;
+import static org.apache.paimon.CoreOptions.INCREMENTAL_BETWEEN;
 import static org.apache.paimon.CoreOptions.SCAN_SNAPSHOT_ID;
 import static org.apache.paimon.CoreOptions.SCAN_TIMESTAMP_MILLIS;
+import static org.apache.paimon.CoreOptions.SOURCE_SPLIT_OPEN_FILE_COST;
+import static org.apache.paimon.CoreOptions.SOURCE_SPLIT_TARGET_SIZE;
 
 /** Trino session properties. */
 public class TrinoSessionProperties {
 
     public static final String SCAN_TIMESTAMP = "scan_timestamp_millis";
     public static final String SCAN_SNAPSHOT = "scan_snapshot_id";
+    public static final String SCAN_INCREMENTAL_BETWEEN = "incremental_between";
     public static final String MINIMUM_SPLIT_WEIGHT = "minimum_split_weight";
+    public static final String SPLIT_TARGET_SIZE = "split_target_size";
+    public static final String SPLIT_OPEN_FILE_COST = "split_open_file_cost";
+    public static final String SPLIT_KEY_RANGES = "split_key_ranges";
+    public static final String READ_OPTIMIZED = "read_optimized";
+    public static final String ENFORCE_FILTER = "enforce_filter";
+    public static final String READ_AHEAD_PAGES = "read_ahead_pages";
+    public static final String PREFETCH_SPLITS = "prefetch_splits";
+    public static final String INDEX_JOIN = "index_join";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -54,9 +75,84 @@ public class TrinoSessionProperties {
                                         SCAN_SNAPSHOT_ID.description().toString(),
                                         null,
                                         true))
+                        .add(
+                                stringProperty(
+                                        SCAN_INCREMENTAL_BETWEEN,
+                                        INCREMENTAL_BETWEEN.description().toString(),
+                                        null,
+                                        true))
                         .add(
                                 doubleProperty(
                                         MINIMUM_SPLIT_WEIGHT, "Minimum split weight", 0.05, false))
+                        .add(
+                                memorySizeProperty(
+                                        SPLIT_TARGET_SIZE,
+                                        SOURCE_SPLIT_TARGET_SIZE.description().toString(),
+                                        1))
+                        .add(
+                                memorySizeProperty(
+                                        SPLIT_OPEN_FILE_COST,
+                                        SOURCE_SPLIT_OPEN_FILE_COST.description().toString(),
+                                        0))
+                        .add(
+                                booleanProperty(
+                                        SPLIT_KEY_RANGES,
+                                        "Split buckets of primary key tables larger than the split "
+                                                + "target size into disjoint key ranges, which "
+                                                + "are merged and read in parallel.",
+                                        false,
+                                        false))
+                        .add(
+                                booleanProperty(
+                                        READ_OPTIMIZED,
+                                        "Read only the fully compacted files of primary key "
+                                                + "tables, the same as querying the system table "
+                                                + "<table>$ro. Results may be stale, but no merge "
+                                                + "is needed.",
+                                        false,
+                                        false))
+                        .add(
+                                booleanProperty(
+                                        ENFORCE_FILTER,
+                                        "Report the filters which the reader evaluates exactly, "
+                                                + "on columns of exactly comparable types of "
+                                                + "append-only tables, as enforced, so that Trino "
+                                                + "does not evaluate them again.",
+                                        false,
+                                        false))
+                        .add(
+                                integerProperty(
+                                        READ_AHEAD_PAGES,
+                                        "Number of pages read ahead in the background for each "
+                                                + "split, so that the driver does not wait for "
+                                                + "I/O. Set to 0 to read the pages on the driver "
+                                                + "thread.",
+                                        0,
+                                        nonNegative(READ_AHEAD_PAGES),
+                                        false))
+                        .add(
+                                integerProperty(
+                                        PREFETCH_SPLITS,
+                                        "Number of the next splits of a coalesced split whose "
+                                                + "readers are opened in the background, reading "
+                                                + "their file footers and first batch while the "
+                                                + "current split is read. Only small splits of "
+                                                + "tables which need no merge, such as append-only "
+                                                + "tables, are coalesced, the splits of other "
+                                                + "primary key tables are read one at a time. Set "
+                                                + "to 0 to open the readers when they are reached.",
+                                        0,
+                                        nonNegative(PREFETCH_SPLITS),
+                                        false))
+                        .add(
+                                booleanProperty(
+                                        INDEX_JOIN,
+                                        "Join primary key tables by looking up batches of keys, "
+                                                + "when the join covers the full primary key, "
+                                                + "instead of scanning the table. Each batch reads "
+                                                + "the splits of the buckets of its keys.",
+                                        false,
+                                        false))
                         .build();
     }
 
@@ -64,6 +160,49 @@ public class TrinoSessionProperties {
         return sessionProperties;
     }
 
+    /**
+     * A memory size property, such as {@code '128 mb'}, which is parsed when it is set, so that
+     * {@code SET SESSION} rejects a malformed value instead of the planning of the next query.
+     */
+    private static PropertyMetadata<MemorySize> memorySizeProperty(
+            String name, String description, long minBytes) {
+        return new PropertyMetadata<>(
+                name,
+                description,
+                VARCHAR,
+                MemorySize.class,
+                null,
+                false,
+                value -> {
+                    MemorySize size;
+                    try {
+                        size = MemorySize.parse((String) value);
+                    } catch (IllegalArgumentException e) {
+                        throw new TrinoException(
+                                INVALID_SESSION_PROPERTY,
+                                format("%s is not a valid memory size: %s", name, value),
+                                e);
+                    }
+                    if (size.getBytes() < minBytes) {
+                        throw new TrinoException(
+                                INVALID_SESSION_PROPERTY,
+                                format("%s must be at least %d bytes: %s", name, minBytes, value));
+                    }
+                    return size;
+                },
+                MemorySize::toString);
+    }
+
+    private static Consumer<Integer> nonNegative(String name) {
+        return value -> {
+            if (value < 0) {
+                throw new TrinoException(
+                        INVALID_SESSION_PROPERTY,
+                        format("%s must not be negative: %s", name, value));
+            }
+        };
+    }
+
     public static Long getScanTimestampMillis(ConnectorSession session) {
         return session.getProperty(SCAN_TIMESTAMP, Long.class);
     }
@@ -72,7 +211,43 @@ public class TrinoSessionProperties {
         return session.getProperty(SCAN_SNAPSHOT, Long.class);
     }
 
+    public static String getIncrementalBetween(ConnectorSession session) {
+        return session.getProperty(SCAN_INCREMENTAL_BETWEEN, String.class);
+    }
+
     public static Double getMinimumSplitWeight(ConnectorSession session) {
         return session.getProperty(MINIMUM_SPLIT_WEIGHT, Double.class);
     }
+
+    public static MemorySize getSplitTargetSize(ConnectorSession session) {
+        return session.getProperty(SPLIT_TARGET_SIZE, MemorySize.class);
+    }
+
+    public static MemorySize getSplitOpenFileCost(ConnectorSession session) {
+        return session.getProperty(SPLIT_OPEN_FILE_COST, MemorySize.class);
+    }
+
+    public static boolean isSplitKeyRanges(ConnectorSession session) {
+        return session.getProperty(SPLIT_KEY_RANGES, Boolean.class);
+    }
+
+    public static boolean isReadOptimized(ConnectorSession session) {
+        return session.getProperty(READ_OPTIMIZED, Boolean.class);
+    }
+
+    public static boolean isEnforceFilter(ConnectorSession session) {
+        return session.getProperty(ENFORCE_FILTER, Boolean.class);
+    }
+
+    public static int getReadAheadPages(ConnectorSession session) {
+        return session.getProperty(READ_AHEAD_PAGES, Integer.class);
+    }
+
+    public static int getPrefetchSplits(ConnectorSession session) {
+        return session.getProperty(PREFETCH_SPLITS, Integer.class);
+    }
+
+    public static boolean isIndexJoin(ConnectorSession session) {
+        return session.getProperty(INDEX_JOIN, Boolean.class);
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.shade.guava30.com.google.common.cache.Cache;
+import org.apache.paimon.shade.guava30.com.google.common.cache.CacheBuilder;
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.utils.SnapshotManager;
+
+import javax.annotation.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coordinator-wide index of the commit times of table snapshots, which resolves the snapshot read
+ * for a timestamp by a binary search over the snapshot ids, reading only the snapshot files which
+ * have not been probed before.
+ *
+ * <p>Snapshot ids increase with their commit times. The index of a table is filled with the commit
+ * times the searches probe, so repeated searches read no snapshot file but the resolved snapshot
+ * and the next one, which check that the result has neither expired nor been rolled back since.
+ */
+public class TrinoSnapshotIndex {
+
+    private static final int MAX_TABLES = 1000;
+
+    private final Cache<String, TableIndex> tables =
+            CacheBuilder.newBuilder().maximumSize(MAX_TABLES).build();
+
+    /**
+     * Returns the id of the latest snapshot committed at or before the timestamp, the same as
+     * {@link SnapshotManager#earlierOrEqualTimeMills}, or null if there is none.
+     */
+    @Nullable
+    public Long earlierOrEqualTimeMills(FileStoreTable table, long timestampMillis) {
+        TableIndex index;
+        try {
+            index = tables.get(table.location().toString(), TableIndex::new);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+        return index.earlierOrEqualTimeMills(table.snapshotManager(), timestampMillis);
+    }
+
+    /** Commit times of the snapshots of a table probed so far, by snapshot id. */
+    private static class TableIndex {
+
+        private final Map<Long, Long> times = new ConcurrentHashMap<>();
+        private volatile long earliestId;
+
+        @Nullable
+        private Long earlierOrEqualTimeMills(
+                SnapshotManager snapshotManager, long timestampMillis) {
+            Long earliest = snapshotManager.earliestSnapshotId();
+            Long latest = snapshotManager.latestSnapshotId();
+            if (earliest == null || latest == null) {
+                return null;
+            }
+            if (earliest > earliestId) {
+                // forget the expired snapshots
+                times.keySet().removeIf(id -> id < earliest);
+                earliestId = earliest;
+            }
+
+            Long result = search(snapshotManager, earliest, latest, timestampMillis);
+            if (!isResult(snapshotManager, result, earliest, latest, timestampMillis)) {
+                // rolled back, the ids have been reused by other snapshots
+                times.clear();
+                result = search(snapshotManager, earliest, latest, timestampMillis);
+            }
+            return result;
+        }
+
+        @Nullable
+        private Long search(
+                SnapshotManager snapshotManager, long earliest, long latest, long timestampMillis) {
+            Long result = null;
+            long low = earliest;
+            long high = latest;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                if (timeMillis(snapshotManager, mid) <= timestampMillis) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Checks the result of a search against the snapshot files: the resolved snapshot is
+         * committed at or before the timestamp, and the next one after it.
+         */
+        private boolean isResult(
+                SnapshotManager snapshotManager,
+                @Nullable Long result,
+                long earliest,
+                long latest,
+                long timestampMillis) {
+            if (result == null) {
+                return readTimeMillis(snapshotManager, earliest) > timestampMillis;
+            }
+            return readTimeMillis(snapshotManager, result) <= timestampMillis
+                    && (result == latest
+                            || readTimeMillis(snapshotManager, result + 1) > timestampMillis);
+        }
+
+        private long timeMillis(SnapshotManager snapshotManager, long id) {
+            Long time = times.get(id);
+            return time == null ? readTimeMillis(snapshotManager, id) : time;
+        }
+
+        private long readTimeMillis(SnapshotManager snapshotManager, long id) {
+            long time = snapshotManager.snapshot(id).timeMillis();
+            times.put(id, time);
+            return time;
+        }
+    }
+}
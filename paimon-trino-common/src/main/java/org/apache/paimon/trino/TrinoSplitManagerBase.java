@@ -18,49 +18,380 @@
 
 package org.apache.paimon.trino;
 
+import org.apache.paimon.CoreOptions;
+import org.apache.paimon.data.BinaryRow;
+import org.apache.paimon.data.InternalRow;
+import org.apache.paimon.io.DataFileMeta;
+import org.apache.paimon.mergetree.SortedRun;
+import org.apache.paimon.mergetree.compact.IntervalPartition;
+import org.apache.paimon.options.Options;
+import org.apache.paimon.shade.guava30.com.google.common.hash.Hashing;
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.table.FileStoreTableFactory;
 import org.apache.paimon.table.Table;
+import org.apache.paimon.table.source.DataSplit;
 import org.apache.paimon.table.source.ReadBuilder;
 import org.apache.paimon.table.source.Split;
+import org.apache.paimon.utils.KeyComparatorSupplier;
 
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorSplitManager;
 import io.trino.spi.connector.ConnectorSplitSource;
 import io.trino.spi.connector.ConnectorTableHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /** Trino {@link ConnectorSplitManager}. */
 public abstract class TrinoSplitManagerBase implements ConnectorSplitManager {
 
+    private static final Logger LOG = LoggerFactory.getLogger(TrinoSplitManagerBase.class);
+    private static final String PLANNING_LOG_MESSAGE =
+            "Planned {} splits of table {} for query {} in {} ms";
+
+    private final TrinoPlanCache planCache;
+    private final TrinoSnapshotIndex snapshotIndex;
+    @Nullable private final Integer manifestParallelism;
+    private final long planningLogThresholdMillis;
+
+    public TrinoSplitManagerBase(Options options, TrinoPlanCache planCache) {
+        this.planCache = planCache;
+        this.snapshotIndex = new TrinoSnapshotIndex();
+        this.manifestParallelism = options.get(TrinoConnectorOptions.PLANNING_MANIFEST_PARALLELISM);
+        this.planningLogThresholdMillis =
+                options.get(TrinoConnectorOptions.PLANNING_LOG_THRESHOLD).toMillis();
+    }
+
     protected ConnectorSplitSource getSplits(
             ConnectorTableHandle connectorTableHandle, ConnectorSession session) {
         // TODO dynamicFilter?
         // TODO what is constraint?
 
+        long start = System.nanoTime();
         TrinoTableHandle tableHandle = (TrinoTableHandle) connectorTableHandle;
-        Table table = tableHandle.tableWithDynamicOptions(session);
-        ReadBuilder readBuilder = table.newReadBuilder();
-        new TrinoFilterConverter(table.rowType())
-                .convert(tableHandle.getFilter())
-                .ifPresent(readBuilder::withFilter);
-        tableHandle.getLimit().ifPresent(limit -> readBuilder.withLimit((int) limit));
-        List<Split> splits = readBuilder.newScan().plan().splits();
+        if (tableHandle.getFilter().isNone()) {
+            // no row can match the filter, do not read the manifests
+            return new TrinoSplitSource(Collections.emptyList());
+        }
+
+        Table table =
+                withTimestampSnapshot(
+                        withManifestParallelism(tableHandle.tableWithDynamicOptions(session)));
+        List<Split> splits =
+                planCache.plan(
+                        table,
+                        tableHandle.getFilter(),
+                        tableHandle.getLimit(),
+                        planTable -> {
+                            ReadBuilder readBuilder = planTable.newReadBuilder();
+                            new TrinoFilterConverter(planTable.rowType())
+                                    .convert(tableHandle.getFilter())
+                                    .ifPresent(readBuilder::withFilter);
+                            tableHandle
+                                    .getLimit()
+                                    .ifPresent(limit -> readBuilder.withLimit((int) limit));
+                            return readBuilder.newScan().plan().splits();
+                        });
+
+        if (tableHandle.getGroupingColumns().isPresent()) {
+            // only the partition values are read, pass a single split per partition without files
+            Map<BinaryRow, Split> partitions = new LinkedHashMap<>();
+            for (Split split : splits) {
+                DataSplit dataSplit = (DataSplit) split;
+                partitions.putIfAbsent(
+                        dataSplit.partition(), copy(dataSplit, Collections.emptyList()));
+            }
+            return new TrinoSplitSource(
+                    Collections.singletonList(
+                            TrinoSplit.fromSplits(new ArrayList<>(partitions.values()), 1.0)));
+        }
 
         long maxRowCount = splits.stream().mapToLong(Split::rowCount).max().orElse(0L);
+        CoreOptions coreOptions = CoreOptions.fromMap(table.options());
+        long targetSplitSize = coreOptions.splitTargetSize();
+        double projectedFraction =
+                tableHandle
+                        .getProjectedColumns()
+                        .map(
+                                columns ->
+                                        (double) Math.max(columns.size(), 1)
+                                                / table.rowType().getFieldCount())
+                        .orElse(1.0);
+        boolean mergeRequired = TrinoTableUtils.isMergeRequired(table);
+        if (mergeRequired
+                && table instanceof FileStoreTable
+                && TrinoSessionProperties.isSplitKeyRanges(session)) {
+            Comparator<InternalRow> keyComparator =
+                    new KeyComparatorSupplier(
+                                    ((FileStoreTable) table)
+                                            .schema()
+                                            .logicalTrimmedPrimaryKeysType())
+                            .get();
+            splits =
+                    splits.stream()
+                            .flatMap(
+                                    split ->
+                                            split instanceof DataSplit
+                                                    ? splitByKeyRange(
+                                                            (DataSplit) split,
+                                                            keyComparator,
+                                                            targetSplitSize)
+                                                            .stream()
+                                                    : Stream.of(split))
+                            .collect(Collectors.toList());
+        }
+        if (tableHandle.getSampleRatio().isPresent()) {
+            splits = sample(splits, tableHandle.getSampleRatio().getAsDouble(), mergeRequired);
+        }
+        List<List<Split>> groups =
+                mergeRequired
+                        ? splits.stream()
+                                .map(Collections::singletonList)
+                                .collect(Collectors.toList())
+                        : coalesce(splits, targetSplitSize, coreOptions.splitOpenFileCost());
         double minimumSplitWeight = TrinoSessionProperties.getMinimumSplitWeight(session);
+        long planningMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (planningMillis >= planningLogThresholdMillis) {
+            LOG.info(
+                    PLANNING_LOG_MESSAGE,
+                    groups.size(),
+                    table.name(),
+                    session.getQueryId(),
+                    planningMillis);
+        } else {
+            LOG.debug(
+                    PLANNING_LOG_MESSAGE,
+                    groups.size(),
+                    table.name(),
+                    session.getQueryId(),
+                    planningMillis);
+        }
         return new TrinoSplitSource(
-                splits.stream()
+                groups.stream()
                         .map(
-                                split ->
-                                        TrinoSplit.fromSplit(
-                                                split,
-                                                Math.min(
-                                                        Math.max(
-                                                                (double) split.rowCount()
-                                                                        / maxRowCount,
-                                                                minimumSplitWeight),
-                                                        1.0)))
+                                group -> {
+                                    double weight = 0;
+                                    for (Split split : group) {
+                                        weight +=
+                                                split instanceof DataSplit
+                                                        ? estimateCost(
+                                                                        (DataSplit) split,
+                                                                        projectedFraction,
+                                                                        mergeRequired)
+                                                                / targetSplitSize
+                                                        : (double) split.rowCount() / maxRowCount;
+                                    }
+                                    return TrinoSplit.fromSplits(
+                                            group,
+                                            Math.min(Math.max(weight, minimumSplitWeight), 1.0));
+                                })
                         .collect(Collectors.toList()));
     }
+
+    /**
+     * Reads the snapshot of the scan timestamp, if any, by its id resolved from the snapshot index,
+     * which also lets the plan cache serve repeated queries of the same timestamp.
+     */
+    private Table withTimestampSnapshot(Table table) {
+        if (!(table instanceof FileStoreTable)) {
+            return table;
+        }
+        FileStoreTable fileStoreTable = (FileStoreTable) table;
+        CoreOptions coreOptions = fileStoreTable.coreOptions();
+        if (coreOptions.startupMode() != CoreOptions.StartupMode.FROM_TIMESTAMP) {
+            return table;
+        }
+        Long snapshotId =
+                snapshotIndex.earlierOrEqualTimeMills(
+                        fileStoreTable, coreOptions.scanTimestampMills());
+        if (snapshotId == null) {
+            return table;
+        }
+        // a copy can not remove the scan timestamp, which conflicts with the snapshot id, so the
+        // table is created again, in the same catalog environment
+        Map<String, String> options = new HashMap<>(fileStoreTable.schema().options());
+        options.remove(CoreOptions.SCAN_TIMESTAMP_MILLIS.key());
+        options.put(CoreOptions.SCAN_MODE.key(), CoreOptions.StartupMode.FROM_SNAPSHOT.toString());
+        options.put(CoreOptions.SCAN_SNAPSHOT_ID.key(), String.valueOf(snapshotId));
+        return FileStoreTableFactory.create(
+                fileStoreTable.fileIO(),
+                fileStoreTable.location(),
+                fileStoreTable.schema().copy(options),
+                fileStoreTable.catalogEnvironment());
+    }
+
+    private Table withManifestParallelism(Table table) {
+        if (manifestParallelism == null
+                || table.options().containsKey(CoreOptions.SCAN_MANIFEST_PARALLELISM.key())) {
+            return table;
+        }
+        return table.copy(
+                Collections.singletonMap(
+                        CoreOptions.SCAN_MANIFEST_PARALLELISM.key(),
+                        String.valueOf(manifestParallelism)));
+    }
+
+    /**
+     * Packs small splits of the same partition into groups of about the target split size, so that
+     * tables with many small files do not produce a Trino split per file. Paimon already packs the
+     * files of a bucket, this packs the splits of different buckets.
+     */
+    static List<List<Split>> coalesce(List<Split> splits, long targetSplitSize, long openFileCost) {
+        List<List<Split>> groups = new ArrayList<>();
+        Map<BinaryRow, List<Split>> openGroups = new LinkedHashMap<>();
+        Map<BinaryRow, Long> openGroupSizes = new HashMap<>();
+        for (Split split : splits) {
+            if (!(split instanceof DataSplit)) {
+                groups.add(Collections.singletonList(split));
+                continue;
+            }
+
+            DataSplit dataSplit = (DataSplit) split;
+            long size = 0;
+            for (DataFileMeta file : dataSplit.dataFiles()) {
+                size += Math.max(file.fileSize(), openFileCost);
+            }
+            if (size >= targetSplitSize) {
+                groups.add(Collections.singletonList(split));
+                continue;
+            }
+
+            BinaryRow partition = dataSplit.partition();
+            List<Split> group = openGroups.get(partition);
+            long groupSize = openGroupSizes.getOrDefault(partition, 0L);
+            if (group != null && groupSize + size > targetSplitSize) {
+                groups.add(group);
+                group = null;
+            }
+            if (group == null) {
+                group = new ArrayList<>();
+                groupSize = 0;
+                openGroups.put(partition, group);
+            }
+            group.add(split);
+            openGroupSizes.put(partition, groupSize + size);
+        }
+        groups.addAll(openGroups.values());
+        return groups;
+    }
+
+    /**
+     * Splits the files of a primary key bucket into disjoint key ranges of about the target split
+     * size. Every version of a key lies in the files of a single range, so each range can be merged
+     * on its own.
+     */
+    static List<Split> splitByKeyRange(
+            DataSplit split, Comparator<InternalRow> keyComparator, long targetSplitSize) {
+        if (!split.beforeFiles().isEmpty()) {
+            return Collections.singletonList(split);
+        }
+
+        List<Split> ranges = new ArrayList<>();
+        List<DataFileMeta> files = new ArrayList<>();
+        long size = 0;
+        for (List<SortedRun> section :
+                new IntervalPartition(split.dataFiles(), keyComparator).partition()) {
+            for (SortedRun run : section) {
+                files.addAll(run.files());
+                size += run.totalSize();
+            }
+            if (size >= targetSplitSize) {
+                ranges.add(copy(split, files));
+                files = new ArrayList<>();
+                size = 0;
+            }
+        }
+        if (!files.isEmpty()) {
+            ranges.add(copy(split, files));
+        }
+        return ranges.size() > 1 ? ranges : Collections.singletonList(split);
+    }
+
+    /**
+     * Keeps a deterministic fraction of the data files, chosen by the hash of their names. The
+     * files of a split which must be merged are kept or skipped together, chosen by its first file.
+     */
+    static List<Split> sample(List<Split> splits, double sampleRatio, boolean mergeRequired) {
+        List<Split> sampled = new ArrayList<>();
+        for (Split split : splits) {
+            if (!(split instanceof DataSplit) || ((DataSplit) split).dataFiles().isEmpty()) {
+                sampled.add(split);
+                continue;
+            }
+
+            DataSplit dataSplit = (DataSplit) split;
+            if (mergeRequired || !dataSplit.beforeFiles().isEmpty()) {
+                if (isSampled(dataSplit.dataFiles().get(0), sampleRatio)) {
+                    sampled.add(split);
+                }
+                continue;
+            }
+
+            List<DataFileMeta> files =
+                    dataSplit.dataFiles().stream()
+                            .filter(file -> isSampled(file, sampleRatio))
+                            .collect(Collectors.toList());
+            if (files.size() == dataSplit.dataFiles().size()) {
+                sampled.add(split);
+            } else if (!files.isEmpty()) {
+                sampled.add(copy(dataSplit, files));
+            }
+        }
+        return sampled;
+    }
+
+    private static boolean isSampled(DataFileMeta file, double sampleRatio) {
+        int hash = Hashing.murmur3_32().hashString(file.fileName(), UTF_8).asInt();
+        return (hash & Integer.MAX_VALUE) / (Integer.MAX_VALUE + 1.0) < sampleRatio;
+    }
+
+    private static DataSplit copy(DataSplit split, List<DataFileMeta> dataFiles) {
+        return DataSplit.builder()
+                .withSnapshot(split.snapshotId())
+                .withPartition(split.partition())
+                .withBucket(split.bucket())
+                .withDataFiles(dataFiles)
+                .isStreaming(split.isStreaming())
+                .build();
+    }
+
+    /**
+     * Estimates the cost of reading a split in bytes: the bytes of its data files scaled by the
+     * fraction of projected columns and, when rows must be merged by primary key, by the cost of
+     * merging its sorted runs.
+     */
+    static double estimateCost(DataSplit split, double projectedFraction, boolean mergeRequired) {
+        long fileBytes = 0;
+        int sortedRuns = 0;
+        Set<Integer> levels = new HashSet<>();
+        for (DataFileMeta file : split.dataFiles()) {
+            fileBytes += file.fileSize();
+            // every level 0 file is a sorted run, each upper level is a single sorted run
+            if (file.level() == 0 || levels.add(file.level())) {
+                sortedRuns++;
+            }
+        }
+        double cost = fileBytes * projectedFraction;
+        if (mergeRequired && sortedRuns > 1) {
+            // each row passes through a merge heap of the sorted runs
+            cost *= 1 + Math.log(sortedRuns) / Math.log(2);
+        }
+        return cost;
+    }
 }
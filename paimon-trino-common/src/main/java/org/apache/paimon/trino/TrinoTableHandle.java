@@ -19,6 +19,7 @@
 package org.apache.paimon.trino;
 
 import org.apache.paimon.CoreOptions;
+import org.apache.paimon.options.MemorySize;
 import org.apache.paimon.table.Table;
 import org.apache.paimon.utils.InstantiationUtil;
 
@@ -40,6 +41,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
@@ -52,6 +54,8 @@ public final class TrinoTableHandle implements ConnectorTableHandle {
     private final TupleDomain<TrinoColumnHandle> filter;
     private final Optional<List<ColumnHandle>> projectedColumns;
     private final OptionalLong limit;
+    private final OptionalDouble sampleRatio;
+    private final Optional<List<TrinoColumnHandle>> groupingColumns;
 
     private Table lazyTable;
 
@@ -65,6 +69,24 @@ public final class TrinoTableHandle implements ConnectorTableHandle {
                 OptionalLong.empty());
     }
 
+    public TrinoTableHandle(
+            String schemaName,
+            String tableName,
+            byte[] serializedTable,
+            TupleDomain<TrinoColumnHandle> filter,
+            Optional<List<ColumnHandle>> projectedColumns,
+            OptionalLong limit) {
+        this(
+                schemaName,
+                tableName,
+                serializedTable,
+                filter,
+                projectedColumns,
+                limit,
+                OptionalDouble.empty(),
+                Optional.empty());
+    }
+
     @JsonCreator
     public TrinoTableHandle(
             @JsonProperty("schemaName") String schemaName,
@@ -72,13 +94,17 @@ public final class TrinoTableHandle implements ConnectorTableHandle {
             @JsonProperty("serializedTable") byte[] serializedTable,
             @JsonProperty("filter") TupleDomain<TrinoColumnHandle> filter,
             @JsonProperty("projection") Optional<List<ColumnHandle>> projectedColumns,
-            @JsonProperty("limit") OptionalLong limit) {
+            @JsonProperty("limit") OptionalLong limit,
+            @JsonProperty("sampleRatio") OptionalDouble sampleRatio,
+            @JsonProperty("groupingColumns") Optional<List<TrinoColumnHandle>> groupingColumns) {
         this.schemaName = schemaName;
         this.tableName = tableName;
         this.serializedTable = serializedTable;
         this.filter = filter;
         this.projectedColumns = projectedColumns;
         this.limit = limit;
+        this.sampleRatio = sampleRatio;
+        this.groupingColumns = groupingColumns;
     }
 
     @JsonProperty
@@ -110,22 +136,89 @@ public final class TrinoTableHandle implements ConnectorTableHandle {
         return limit;
     }
 
+    /** Returns the fraction of the data files to read, see TABLESAMPLE SYSTEM. */
+    @JsonProperty
+    public OptionalDouble getSampleRatio() {
+        return sampleRatio;
+    }
+
+    /**
+     * Returns the partition keys the table is grouped by, if the table is aggregated from its
+     * partition values. Then the table has a row per group, whose columns are the grouping columns
+     * and the aggregates of partition keys, see {@link TrinoColumnHandle#aggregate}.
+     */
+    @JsonProperty
+    public Optional<List<TrinoColumnHandle>> getGroupingColumns() {
+        return groupingColumns;
+    }
+
     public TrinoTableHandle copy(TupleDomain<TrinoColumnHandle> filter) {
         return new TrinoTableHandle(
-                schemaName, tableName, serializedTable, filter, projectedColumns, limit);
+                schemaName,
+                tableName,
+                serializedTable,
+                filter,
+                projectedColumns,
+                limit,
+                sampleRatio,
+                groupingColumns);
     }
 
     public TrinoTableHandle copy(Optional<List<ColumnHandle>> projectedColumns) {
         return new TrinoTableHandle(
-                schemaName, tableName, serializedTable, filter, projectedColumns, limit);
+                schemaName,
+                tableName,
+                serializedTable,
+                filter,
+                projectedColumns,
+                limit,
+                sampleRatio,
+                groupingColumns);
     }
 
     public TrinoTableHandle copy(OptionalLong limit) {
         return new TrinoTableHandle(
-                schemaName, tableName, serializedTable, filter, projectedColumns, limit);
+                schemaName,
+                tableName,
+                serializedTable,
+                filter,
+                projectedColumns,
+                limit,
+                sampleRatio,
+                groupingColumns);
+    }
+
+    public TrinoTableHandle copy(OptionalDouble sampleRatio) {
+        return new TrinoTableHandle(
+                schemaName,
+                tableName,
+                serializedTable,
+                filter,
+                projectedColumns,
+                limit,
+                sampleRatio,
+                groupingColumns);
+    }
+
+    public TrinoTableHandle withGroupingColumns(List<TrinoColumnHandle> groupingColumns) {
+        return new TrinoTableHandle(
+                schemaName,
+                tableName,
+                serializedTable,
+                filter,
+                projectedColumns,
+                limit,
+                sampleRatio,
+                Optional.of(groupingColumns));
     }
 
     public Table tableWithDynamicOptions(ConnectorSession session) {
+        Map<String, String> dynamicOptions = dynamicOptions(session);
+        return dynamicOptions.size() > 0 ? table().copy(dynamicOptions) : table();
+    }
+
+    /** Returns the table options set by the session properties. */
+    public static Map<String, String> dynamicOptions(ConnectorSession session) {
         // see TrinoConnector.getSessionProperties
         Map<String, String> dynamicOptions = new HashMap<>();
         Long scanTimestampMills = TrinoSessionProperties.getScanTimestampMillis(session);
@@ -137,8 +230,21 @@ public final class TrinoTableHandle implements ConnectorTableHandle {
         if (scanSnapshotId != null) {
             dynamicOptions.put(CoreOptions.SCAN_SNAPSHOT_ID.key(), scanSnapshotId.toString());
         }
-
-        return dynamicOptions.size() > 0 ? table().copy(dynamicOptions) : table();
+        String incrementalBetween = TrinoSessionProperties.getIncrementalBetween(session);
+        if (incrementalBetween != null) {
+            dynamicOptions.put(CoreOptions.INCREMENTAL_BETWEEN.key(), incrementalBetween);
+        }
+        MemorySize splitTargetSize = TrinoSessionProperties.getSplitTargetSize(session);
+        if (splitTargetSize != null) {
+            dynamicOptions.put(
+                    CoreOptions.SOURCE_SPLIT_TARGET_SIZE.key(), splitTargetSize.toString());
+        }
+        MemorySize splitOpenFileCost = TrinoSessionProperties.getSplitOpenFileCost(session);
+        if (splitOpenFileCost != null) {
+            dynamicOptions.put(
+                    CoreOptions.SOURCE_SPLIT_OPEN_FILE_COST.key(), splitOpenFileCost.toString());
+        }
+        return dynamicOptions;
     }
 
     public Table table() {
@@ -198,12 +304,20 @@ public final class TrinoTableHandle implements ConnectorTableHandle {
                 && Objects.equals(schemaName, that.schemaName)
                 && Objects.equals(tableName, that.tableName)
                 && Objects.equals(filter, that.filter)
-                && Objects.equals(projectedColumns, that.projectedColumns);
+                && Objects.equals(projectedColumns, that.projectedColumns)
+                && Objects.equals(sampleRatio, that.sampleRatio)
+                && Objects.equals(groupingColumns, that.groupingColumns);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(
-                schemaName, tableName, filter, projectedColumns, Arrays.hashCode(serializedTable));
+                schemaName,
+                tableName,
+                filter,
+                projectedColumns,
+                sampleRatio,
+                groupingColumns,
+                Arrays.hashCode(serializedTable));
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.paimon.trino;
+
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.table.Table;
+import org.apache.paimon.table.system.ReadOptimizedTable;
+
+/** Utils for the Paimon {@link Table}s read by the connector. */
+public class TrinoTableUtils {
+
+    /**
+     * Returns whether the table reads the data files of a table store directly, that is a {@link
+     * FileStoreTable} or its read optimized view, see {@link
+     * TrinoSessionProperties#READ_OPTIMIZED}.
+     */
+    public static boolean isDataFileTable(Table table) {
+        return table instanceof FileStoreTable || table instanceof ReadOptimizedTable;
+    }
+
+    /**
+     * Returns whether the records of the table must be merged by primary key. The read optimized
+     * view only reads the files of the highest level, which are fully compacted: every key is
+     * unique and no deletion is left, so they are read like the files of an append-only table.
+     */
+    public static boolean isMergeRequired(Table table) {
+        return !table.primaryKeys().isEmpty() && !(table instanceof ReadOptimizedTable);
+    }
+}
@@ -18,6 +18,9 @@
 
 package org.apache.paimon.trino;
 
+import org.apache.paimon.data.BinaryString;
+import org.apache.paimon.data.Decimal;
+import org.apache.paimon.data.Timestamp;
 import org.apache.paimon.types.ArrayType;
 import org.apache.paimon.types.BigIntType;
 import org.apache.paimon.types.BinaryType;
@@ -43,7 +46,9 @@ import org.apache.paimon.types.TinyIntType;
 import org.apache.paimon.types.VarBinaryType;
 import org.apache.paimon.types.VarCharType;
 
+import io.airlift.slice.Slices;
 import io.trino.spi.type.BigintType;
+import io.trino.spi.type.Decimals;
 import io.trino.spi.type.IntegerType;
 import io.trino.spi.type.RealType;
 import io.trino.spi.type.SmallintType;
@@ -54,11 +59,16 @@ import io.trino.spi.type.TypeOperators;
 import io.trino.spi.type.VarbinaryType;
 import io.trino.spi.type.VarcharType;
 
+import javax.annotation.Nullable;
+
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import static io.trino.spi.type.DateTimeEncoding.packDateTimeWithZone;
+import static io.trino.spi.type.TimeZoneKey.UTC_KEY;
+
 /** Trino type from Paimon Type. */
 public class TrinoTypeUtils {
 
@@ -70,6 +80,45 @@ public class TrinoTypeUtils {
         return TrinoToPaimonTypeVistor.INSTANCE.visit(trinoType);
     }
 
+    /**
+     * Converts a value of Paimon's internal data structures to the native value of the Trino type.
+     * Only atomic types, which may be used as partition keys, are supported.
+     */
+    @Nullable
+    public static Object toTrinoNativeValue(Type type, @Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        if (type instanceof io.trino.spi.type.BooleanType
+                || type instanceof io.trino.spi.type.DoubleType) {
+            return value;
+        } else if (type instanceof TinyintType
+                || type instanceof SmallintType
+                || type instanceof IntegerType
+                || type instanceof BigintType
+                || type instanceof io.trino.spi.type.DateType) {
+            return ((Number) value).longValue();
+        } else if (type instanceof RealType) {
+            return (long) Float.floatToIntBits((Float) value);
+        } else if (type instanceof VarcharType || type instanceof io.trino.spi.type.CharType) {
+            return Slices.wrappedBuffer(((BinaryString) value).toBytes());
+        } else if (type instanceof VarbinaryType) {
+            return Slices.wrappedBuffer((byte[]) value);
+        } else if (type instanceof io.trino.spi.type.DecimalType
+                && ((io.trino.spi.type.DecimalType) type).isShort()) {
+            return Decimals.encodeShortScaledValue(
+                    ((Decimal) value).toBigDecimal(),
+                    ((io.trino.spi.type.DecimalType) type).getScale());
+        } else if (type instanceof io.trino.spi.type.TimestampType
+                && ((io.trino.spi.type.TimestampType) type).isShort()) {
+            return ((Timestamp) value).toMicros();
+        } else if (type.equals(TimestampWithTimeZoneType.TIMESTAMP_TZ_MILLIS)) {
+            return packDateTimeWithZone(((Timestamp) value).getMillisecond(), UTC_KEY);
+        }
+        throw new UnsupportedOperationException("Unsupported type: " + type);
+    }
+
     private static class PaimonToTrinoTypeVistor extends DataTypeDefaultVisitor<Type> {
 
         private static final PaimonToTrinoTypeVistor INSTANCE = new PaimonToTrinoTypeVistor();
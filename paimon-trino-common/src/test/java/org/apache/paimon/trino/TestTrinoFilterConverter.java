@@ -33,6 +33,7 @@ import io.trino.spi.predicate.Range;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.predicate.ValueSet;
 import io.trino.spi.type.CharType;
+import io.trino.spi.type.LongTimestamp;
 import io.trino.spi.type.SmallintType;
 import io.trino.spi.type.TimeZoneKey;
 import io.trino.spi.type.TimestampType;
@@ -42,8 +43,10 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.Collections;
 
+import static io.trino.spi.type.DateTimeEncoding.packDateTimeWithZone;
 import static io.trino.spi.type.IntegerType.INTEGER;
 import static io.trino.spi.type.LongTimestampWithTimeZone.fromEpochMillisAndFraction;
+import static io.trino.spi.type.TimeType.TIME_MILLIS;
 import static io.trino.spi.type.TimestampWithTimeZoneType.createTimestampWithTimeZoneType;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -174,6 +177,73 @@ public class TestTrinoFilterConverter {
         assertThat(actualEqq).isEqualTo(expectedEqq);
     }
 
+    @Test
+    public void testTimeStampPrecisions() {
+        for (int precision : new int[] {0, 6}) {
+            RowType rowType =
+                    new RowType(
+                            Collections.singletonList(
+                                    new DataField(
+                                            0,
+                                            "ts",
+                                            new org.apache.paimon.types.TimestampType(precision))));
+            TrinoColumnHandle tsColumn =
+                    TrinoColumnHandle.of(
+                            "ts", new org.apache.paimon.types.TimestampType(precision));
+            TupleDomain<TrinoColumnHandle> gt =
+                    TupleDomain.withColumnDomains(
+                            ImmutableMap.of(
+                                    tsColumn,
+                                    Domain.create(
+                                            ValueSet.ofRanges(
+                                                    Range.greaterThan(
+                                                            TimestampType.createTimestampType(
+                                                                    precision),
+                                                            1695645403000123L)),
+                                            false)));
+            Predicate expectedGt =
+                    new PredicateBuilder(rowType)
+                            .greaterThan(0, Timestamp.fromMicros(1695645403000123L));
+            assertThat(new TrinoFilterConverter(rowType).convert(gt).get()).isEqualTo(expectedGt);
+        }
+
+        RowType rowType =
+                new RowType(
+                        Collections.singletonList(
+                                new DataField(
+                                        0, "ts", new org.apache.paimon.types.TimestampType(9))));
+        TrinoColumnHandle tsColumn =
+                TrinoColumnHandle.of("ts", new org.apache.paimon.types.TimestampType(9));
+        TupleDomain<TrinoColumnHandle> eq =
+                TupleDomain.withColumnDomains(
+                        ImmutableMap.of(
+                                tsColumn,
+                                Domain.singleValue(
+                                        TimestampType.createTimestampType(9),
+                                        new LongTimestamp(-1695645403000123L, 456_000))));
+        Predicate expectedEq =
+                new PredicateBuilder(rowType)
+                        .equal(0, Timestamp.fromEpochMillis(-1695645403001L, 877_456));
+        assertThat(new TrinoFilterConverter(rowType).convert(eq).get()).isEqualTo(expectedEq);
+    }
+
+    @Test
+    public void testTime() {
+        RowType rowType =
+                new RowType(
+                        Collections.singletonList(
+                                new DataField(0, "t", new org.apache.paimon.types.TimeType(3))));
+        TrinoColumnHandle timeColumn =
+                TrinoColumnHandle.of("t", new org.apache.paimon.types.TimeType(3));
+        TupleDomain<TrinoColumnHandle> eq =
+                TupleDomain.withColumnDomains(
+                        ImmutableMap.of(
+                                timeColumn,
+                                Domain.singleValue(TIME_MILLIS, 3_723_456L * 1_000_000_000L)));
+        Predicate expectedEq = new PredicateBuilder(rowType).equal(0, 3_723_456);
+        assertThat(new TrinoFilterConverter(rowType).convert(eq).get()).isEqualTo(expectedEq);
+    }
+
     @Test
     public void testTimeStampWithTimeZone() {
         RowType rowType =
@@ -209,8 +279,10 @@ public class TestTrinoFilterConverter {
                         ImmutableMap.of(
                                 tsColumn,
                                 Domain.singleValue(
-                                        createTimestampWithTimeZoneType(3), 1695645403000L)));
-        expectedEqq = builder.equal(0, 1695645403000L);
+                                        createTimestampWithTimeZoneType(3),
+                                        packDateTimeWithZone(
+                                                1695645403000L, TimeZoneKey.UTC_KEY))));
+        expectedEqq = builder.equal(0, Timestamp.fromEpochMillis(1695645403000L));
         actualEqq = converter.convert(eq).get();
         assertThat(actualEqq).isEqualTo(expectedEqq);
     }
@@ -42,6 +42,7 @@ import org.apache.paimon.types.RowType;
 import org.apache.paimon.types.TimestampType;
 import org.apache.paimon.types.VarCharType;
 
+import io.trino.Session;
 import io.trino.testing.AbstractTestQueryFramework;
 import io.trino.testing.DistributedQueryRunner;
 import io.trino.testing.MaterializedResult;
@@ -234,6 +235,7 @@ public abstract class TestTrinoITCase extends AbstractTestQueryFramework {
             queryRunner.installPlugin(new TrinoPlugin());
             Map<String, String> options = new HashMap<>();
             options.put("warehouse", warehouse);
+            options.put("planning.manifest-parallelism", "2");
             queryRunner.createCatalog(CATALOG, CATALOG, options);
             return queryRunner;
         } catch (Throwable e) {
@@ -311,6 +313,111 @@ public abstract class TestTrinoITCase extends AbstractTestQueryFramework {
                 .isEqualTo("[[1, 1, 2, 2, 2]]");
     }
 
+    @Test
+    public void testPartitionColumns() {
+        assertThat(sql("SELECT b, pt, a FROM paimon.default.t3 ORDER BY b"))
+                .isEqualTo("[[1, 1, 1], [2, 1, 1], [3, 2, 3]]");
+        assertThat(sql("SELECT pt FROM paimon.default.t3 ORDER BY pt"))
+                .isEqualTo("[[1], [1], [2]]");
+        assertThat(sql("SELECT pt, count(*) FROM paimon.default.t3 GROUP BY pt ORDER BY pt"))
+                .isEqualTo("[[1, 2], [2, 1]]");
+    }
+
+    @Test
+    public void testEnforceFilter() {
+        String query = "SELECT a FROM paimon.default.t3 WHERE b > 1 ORDER BY a";
+        assertThat(sql(query, "enforce_filter", "true")).isEqualTo("[[1], [3]]");
+        assertThat(
+                        sql(
+                                "SELECT count(*) FROM paimon.default.t3 WHERE b > 1",
+                                "enforce_filter",
+                                "true"))
+                .isEqualTo("[[2]]");
+        assertThat(sql("EXPLAIN " + query)).contains("filterPredicate");
+        assertThat(sql("EXPLAIN " + query, "enforce_filter", "true"))
+                .doesNotContain("filterPredicate");
+
+        // primary key tables need to merge before filtering
+        assertThat(
+                        sql(
+                                "EXPLAIN SELECT a FROM paimon.default.t1 WHERE b > 1",
+                                "enforce_filter",
+                                "true"))
+                .contains("filterPredicate");
+    }
+
+    @Test
+    public void testPartitionPredicate() {
+        assertThat(sql("SELECT pt, a, b FROM paimon.default.t3 WHERE substr(pt, 1, 1) = '2'"))
+                .isEqualTo("[[2, 3, 3]]");
+        assertThat(
+                        sql(
+                                "SELECT count(*) FROM paimon.default.t3 "
+                                        + "WHERE CAST(pt AS integer) % 2 = 1"))
+                .isEqualTo("[[2]]");
+        assertThat(sql("SELECT b FROM paimon.default.t3 WHERE length(pt) > 1")).isEqualTo("[]");
+    }
+
+    @Test
+    public void testGroupByPrimaryKey() {
+        assertThat(sql("SELECT a, count(*) FROM paimon.default.t1 GROUP BY a ORDER BY a"))
+                .isEqualTo("[[1, 1], [5, 1]]");
+        assertThat(
+                        sql(
+                                "SELECT t1.a, t2.b FROM paimon.default.t1 t1 "
+                                        + "JOIN paimon.default.t2 t2 ON t1.a = t2.a ORDER BY t1.a"))
+                .isEqualTo("[[1, 2], [5, 6]]");
+    }
+
+    @Test
+    public void testIndexJoin() {
+        String query =
+                "SELECT v.k, t.b FROM (VALUES 1, 3, 5) v(k) "
+                        + "JOIN paimon.default.t1 t ON v.k = t.a ORDER BY v.k";
+        // index joins are opt-in
+        assertThat(sql("EXPLAIN " + query)).doesNotContain("IndexSource");
+        assertThat(sql("EXPLAIN " + query, "index_join", "true")).contains("IndexSource");
+        assertThat(sql(query, "index_join", "true")).isEqualTo("[[1, 2], [5, 6]]");
+    }
+
+    @Test
+    public void testPartitionAggregation() {
+        // answered from the partitions of the data files, without aggregating rows
+        assertThat(sql("EXPLAIN SELECT DISTINCT pt FROM paimon.default.t3"))
+                .doesNotContain("Aggregate");
+        assertThat(sql("SELECT DISTINCT pt FROM paimon.default.t3 ORDER BY pt"))
+                .isEqualTo("[[1], [2]]");
+        assertThat(sql("SELECT max(pt), min(pt) FROM paimon.default.t3")).isEqualTo("[[2, 1]]");
+        assertThat(sql("SELECT max(pt) FROM paimon.default.t3 WHERE pt = '1'")).isEqualTo("[[1]]");
+        assertThat(sql("SELECT max(pt) FROM paimon.default.t3 WHERE pt = '3'"))
+                .isEqualTo("[[null]]");
+        assertThat(sql("SELECT pt, max(pt) FROM paimon.default.t3 GROUP BY pt ORDER BY pt"))
+                .isEqualTo("[[1, 1], [2, 2]]");
+        assertThat(sql("SELECT count(*) FROM (SELECT DISTINCT pt FROM paimon.default.t3)"))
+                .isEqualTo("[[2]]");
+        assertThat(sql("SELECT max(a) FROM paimon.default.t3")).isEqualTo("[[3]]");
+    }
+
+    @Test
+    public void testEmptyFilter() {
+        String query = "SELECT b FROM paimon.default.t3 WHERE length(pt) > 1";
+        assertThat(sql(query)).isEqualTo("[]");
+        assertThat(sql("EXPLAIN SELECT b FROM paimon.default.t3")).contains("table = paimon");
+        assertThat(sql("EXPLAIN " + query)).doesNotContain("table = paimon");
+        assertThat(sql("SELECT count(*) FROM paimon.default.t3 WHERE pt = '1' AND pt = '2'"))
+                .isEqualTo("[[0]]");
+    }
+
+    @Test
+    public void testCountWithoutReading() {
+        assertThat(sql("SELECT count(*) FROM paimon.default.t3")).isEqualTo("[[3]]");
+        assertThat(sql("SELECT count(*) FROM paimon.default.t3 WHERE pt = '1'")).isEqualTo("[[2]]");
+        assertThat(sql("SELECT count(*) FROM paimon.default.t3 WHERE b > 1")).isEqualTo("[[2]]");
+        assertThat(sql("SELECT count(*) FROM (SELECT pt FROM paimon.default.t3 LIMIT 2)"))
+                .isEqualTo("[[2]]");
+        assertThat(sql("SELECT count(*) FROM paimon.default.t1")).isEqualTo("[[2]]");
+    }
+
     @Test
     public void testShowCreateTable() {
         assertThat(sql("SHOW CREATE TABLE paimon.default.t3"))
@@ -533,6 +640,91 @@ public abstract class TestTrinoITCase extends AbstractTestQueryFramework {
                                 "SELECT * FROM paimon.default.t2 FOR TIMESTAMP AS OF TIMESTAMP "
                                         + timestampLiteral(System.currentTimeMillis(), 6)))
                 .isEqualTo("[[1, 2, 1, 1], [3, 4, 2, 2], [5, 6, 3, 3], [7, 8, 4, 4]]");
+
+        assertThat(sql("SELECT * FROM paimon.default.t2", "scan_snapshot_id", "1"))
+                .isEqualTo("[[1, 2, 1, 1], [3, 4, 2, 2]]");
+        assertThat(
+                        sql(
+                                "SELECT * FROM paimon.default.t2",
+                                "scan_timestamp_millis",
+                                String.valueOf(t2FirstCommitTimestamp)))
+                .isEqualTo("[[1, 2, 1, 1], [3, 4, 2, 2]]");
+    }
+
+    @Test
+    public void testIncrementalBetween() {
+        assertThat(sql("SELECT * FROM paimon.default.t2 ORDER BY a", "incremental_between", "1,2"))
+                .isEqualTo("[[5, 6, 3, 3], [7, 8, 4, 4]]");
+        assertThat(sql("SELECT count(*) FROM paimon.default.t2", "incremental_between", "2,2"))
+                .isEqualTo("[[0]]");
+    }
+
+    @Test
+    public void testTableChanges() {
+        if (trinoVersion < 388) {
+            return;
+        }
+        assertThat(
+                        sql(
+                                "SELECT * FROM TABLE(paimon.system.table_changes("
+                                        + "'default', 't2', 1, 2)) ORDER BY a"))
+                .isEqualTo("[[+I, 5, 6, 3, 3], [+I, 7, 8, 4, 4]]");
+        assertThat(
+                        sql(
+                                "SELECT rowkind, a FROM TABLE(paimon.system.table_changes("
+                                        + "schema_name => 'default', table_name => 't1', "
+                                        + "start_snapshot_id => 0)) ORDER BY a"))
+                .isEqualTo("[[+I, 1], [-D, 3], [+I, 5]]");
+        assertThat(
+                        sql(
+                                "SELECT count(*) FROM TABLE(paimon.system.table_changes("
+                                        + "'default', 't2', 2, 2))"))
+                .isEqualTo("[[0]]");
+    }
+
+    @Test
+    public void testSplitTargetSize() {
+        assertThat(sql("SELECT a, b FROM paimon.default.t3 ORDER BY b", "split_target_size", "1 b"))
+                .isEqualTo("[[1, 1], [1, 2], [3, 3]]");
+        assertThat(
+                        sql(
+                                "SELECT a, b FROM paimon.default.t3 ORDER BY b",
+                                "split_open_file_cost",
+                                "1 b"))
+                .isEqualTo("[[1, 1], [1, 2], [3, 3]]");
+    }
+
+    @Test
+    public void testSplitKeyRanges() {
+        assertThat(sql("SELECT * FROM paimon.default.t2", "split_key_ranges", "true"))
+                .isEqualTo("[[1, 2, 1, 1], [3, 4, 2, 2], [5, 6, 3, 3], [7, 8, 4, 4]]");
+    }
+
+    @Test
+    public void testReadOptimized() {
+        // t1 is not compacted yet, all its files are in level 0
+        assertThat(sql("SELECT * FROM paimon.default.\"t1$ro\"")).isEqualTo("[]");
+        assertThat(sql("SELECT * FROM paimon.default.t1", "read_optimized", "true"))
+                .isEqualTo("[]");
+        // append-only tables are not affected
+        assertThat(sql("SELECT a, b FROM paimon.default.t3 ORDER BY b", "read_optimized", "true"))
+                .isEqualTo("[[1, 1], [1, 2], [3, 3]]");
+    }
+
+    @Test
+    public void testReadAhead() {
+        assertThat(sql("SELECT * FROM paimon.default.t1", "read_ahead_pages", "2"))
+                .isEqualTo(sql("SELECT * FROM paimon.default.t1"));
+        assertThat(sql("SELECT a, b FROM paimon.default.t3 ORDER BY b", "read_ahead_pages", "1"))
+                .isEqualTo("[[1, 1], [1, 2], [3, 3]]");
+    }
+
+    @Test
+    public void testPrefetchSplits() {
+        assertThat(sql("SELECT a, b FROM paimon.default.t3 ORDER BY b", "prefetch_splits", "1"))
+                .isEqualTo("[[1, 1], [1, 2], [3, 3]]");
+        assertThat(sql("SELECT * FROM paimon.default.t2 ORDER BY a", "prefetch_splits", "4"))
+                .isEqualTo(sql("SELECT * FROM paimon.default.t2 ORDER BY a"));
     }
 
     protected String sql(String sql) {
@@ -540,6 +732,15 @@ public abstract class TestTrinoITCase extends AbstractTestQueryFramework {
         return result.getMaterializedRows().toString();
     }
 
+    protected String sql(String sql, String sessionProperty, String value) {
+        Session session =
+                Session.builder(getSession())
+                        .setCatalogSessionProperty(CATALOG, sessionProperty, value)
+                        .build();
+        MaterializedResult result = getQueryRunner().execute(session, sql);
+        return result.getMaterializedRows().toString();
+    }
+
     protected static String timestampLiteral(long epochMilliSeconds, int precision) {
         return DateTimeFormatter.ofPattern(
                         "''yyyy-MM-dd HH:mm:ss." + "S".repeat(precision) + " VV''")
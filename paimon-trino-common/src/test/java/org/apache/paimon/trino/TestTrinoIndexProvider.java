@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.data.GenericRow;
+import org.apache.paimon.fs.Path;
+import org.apache.paimon.fs.local.LocalFileIO;
+import org.apache.paimon.options.Options;
+import org.apache.paimon.schema.Schema;
+import org.apache.paimon.schema.SchemaManager;
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.table.FileStoreTableFactory;
+import org.apache.paimon.table.sink.FixedBucketRowKeyExtractor;
+import org.apache.paimon.table.sink.InnerTableCommit;
+import org.apache.paimon.table.sink.InnerTableWrite;
+import org.apache.paimon.table.source.DataSplit;
+import org.apache.paimon.table.source.Split;
+import org.apache.paimon.types.BigIntType;
+import org.apache.paimon.types.DataField;
+import org.apache.paimon.types.IntType;
+import org.apache.paimon.utils.InstantiationUtil;
+
+import io.trino.spi.Page;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.connector.ConnectorIndex;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.InMemoryRecordSet;
+import io.trino.testing.TestingConnectorSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static org.apache.paimon.CoreOptions.BUCKET;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link TrinoIndexProvider}. */
+public class TestTrinoIndexProvider {
+
+    @TempDir java.nio.file.Path tempDir;
+
+    private FileStoreTable table;
+    private List<Split> splits;
+    private TrinoTableHandle tableHandle;
+
+    @BeforeEach
+    public void before() throws Exception {
+        Path path = new Path(tempDir.toUri().toString(), "t");
+        Map<String, String> options = new HashMap<>();
+        options.put(BUCKET.key(), "4");
+        new SchemaManager(LocalFileIO.create(), path)
+                .createTable(
+                        new Schema(
+                                Arrays.asList(
+                                        new DataField(0, "a", new IntType(false)),
+                                        new DataField(1, "b", new BigIntType())),
+                                Collections.emptyList(),
+                                Collections.singletonList("a"),
+                                options,
+                                ""));
+        table = FileStoreTableFactory.create(LocalFileIO.create(), path);
+        InnerTableWrite writer = table.newWrite("user");
+        InnerTableCommit commit = table.newCommit("user");
+        for (int i = 0; i < 100; i++) {
+            writer.write(GenericRow.of(i, (long) i));
+        }
+        commit.commit(0, writer.prepareCommit(true, 0));
+        writer.close();
+        commit.close();
+        splits = table.newReadBuilder().newScan().plan().splits();
+        tableHandle =
+                new TrinoTableHandle("default", "t", InstantiationUtil.serializeObject(table));
+    }
+
+    @Test
+    public void testPruneSplits() {
+        List<ColumnHandle> keyColumn = Collections.singletonList(tableHandle.columnHandle("a"));
+        assertThat(splits).hasSize(4);
+
+        // the split of the bucket of each key
+        assertThat(buckets(prune(keyColumn, 42L))).containsExactly(bucket(42));
+        assertThat(buckets(prune(keyColumn, 42L, 43L)))
+                .isEqualTo(new HashSet<>(Arrays.asList(bucket(42), bucket(43))));
+
+        // no file of the bucket covers the key
+        assertThat(prune(keyColumn, 1000L)).isEmpty();
+
+        // the buckets are not known without the primary key
+        assertThat(
+                        TrinoIndexProvider.prune(
+                                table,
+                                splits,
+                                Collections.singletonList(tableHandle.columnHandle("b")),
+                                Collections.singletonList(new Object[] {42L})))
+                .isEqualTo(splits);
+    }
+
+    @Test
+    public void testLookupPlansOnce() throws Exception {
+        ConnectorSession session =
+                TestingConnectorSession.builder()
+                        .setPropertyMetadata(new TrinoSessionProperties().getSessionProperties())
+                        .build();
+        List<ColumnHandle> keyColumn = Collections.singletonList(tableHandle.columnHandle("a"));
+        ConnectorIndex index =
+                new TrinoIndexProvider(new TrinoPageSourceProvider(new Options()))
+                        .getIndex(
+                                TrinoTransactionHandle.INSTANCE,
+                                session,
+                                new TrinoIndexHandle(tableHandle),
+                                keyColumn,
+                                keyColumn);
+        assertThat(lookup(index, 42L, 1000L)).isEqualTo(1);
+
+        // the next batches prune the splits planned for the first one, without the manifests
+        LocalFileIO.create().delete(new Path(table.location(), "manifest"), true);
+        assertThat(lookup(index, 1L, 2L, 3L)).isEqualTo(3);
+    }
+
+    private List<Split> prune(List<ColumnHandle> lookupSchema, Long... keys) {
+        return TrinoIndexProvider.prune(
+                table,
+                splits,
+                lookupSchema,
+                Arrays.stream(keys).map(key -> new Object[] {key}).collect(Collectors.toList()));
+    }
+
+    private static long lookup(ConnectorIndex index, Long... keys) {
+        long rows = 0;
+        try (ConnectorPageSource pageSource =
+                index.lookup(
+                        new InMemoryRecordSet(
+                                Collections.singletonList(INTEGER),
+                                Arrays.stream(keys)
+                                        .map(Collections::<Object>singletonList)
+                                        .collect(Collectors.toList())))) {
+            while (!pageSource.isFinished()) {
+                Page page = pageSource.getNextPage();
+                if (page != null) {
+                    rows += page.getPositionCount();
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return rows;
+    }
+
+    private static Set<Integer> buckets(List<Split> splits) {
+        return splits.stream()
+                .map(split -> ((DataSplit) split).bucket())
+                .collect(Collectors.toSet());
+    }
+
+    private int bucket(int a) {
+        FixedBucketRowKeyExtractor extractor = new FixedBucketRowKeyExtractor(table.schema());
+        extractor.setRecord(GenericRow.of(a, (long) a));
+        return extractor.bucket();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.CoreOptions;
+import org.apache.paimon.catalog.Catalog;
+import org.apache.paimon.catalog.CatalogContext;
+import org.apache.paimon.catalog.CatalogFactory;
+import org.apache.paimon.catalog.Identifier;
+import org.apache.paimon.data.GenericRow;
+import org.apache.paimon.options.MemorySize;
+import org.apache.paimon.options.Options;
+import org.apache.paimon.schema.Schema;
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.table.sink.InnerTableCommit;
+import org.apache.paimon.table.sink.InnerTableWrite;
+import org.apache.paimon.table.source.Split;
+import org.apache.paimon.types.DataTypes;
+
+import io.trino.spi.TrinoException;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.ConnectorTableVersion;
+import io.trino.spi.connector.GroupingProperty;
+import io.trino.spi.connector.LocalProperty;
+import io.trino.spi.connector.SchemaTableName;
+import io.trino.testing.TestingConnectorSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static io.trino.spi.connector.PointerType.TARGET_ID;
+import static io.trino.spi.connector.PointerType.TEMPORAL;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateTimeEncoding.packDateTimeWithZone;
+import static io.trino.spi.type.TimeZoneKey.UTC_KEY;
+import static io.trino.spi.type.TimestampWithTimeZoneType.TIMESTAMP_TZ_MILLIS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Test for {@link TrinoMetadata}. */
+public class TestTrinoMetadata {
+
+    private static final SchemaTableName TABLE_NAME = new SchemaTableName("db", "t");
+
+    @TempDir java.nio.file.Path tempDir;
+
+    private TrinoMetadata metadata;
+    private ConnectorSession session;
+
+    @BeforeEach
+    public void before() throws Exception {
+        Options options = new Options();
+        options.set("warehouse", tempDir.toUri().toString());
+        Catalog catalog = CatalogFactory.createCatalog(CatalogContext.create(options));
+        catalog.createDatabase("db", false);
+        Identifier identifier = new Identifier("db", "t");
+        catalog.createTable(
+                identifier,
+                Schema.newBuilder()
+                        .column("a", DataTypes.INT())
+                        .column("b", DataTypes.BIGINT())
+                        .build(),
+                false);
+        FileStoreTable table = (FileStoreTable) catalog.getTable(identifier);
+        InnerTableWrite writer = table.newWrite("user");
+        InnerTableCommit commit = table.newCommit("user");
+        for (int i = 1; i <= 3; i++) {
+            writer.write(GenericRow.of(i, (long) i));
+            commit.commit(i, writer.prepareCommit(true, i));
+        }
+        writer.close();
+        commit.close();
+        catalog.createTable(
+                new Identifier("db", "pk"),
+                Schema.newBuilder()
+                        .column("a", DataTypes.INT().notNull())
+                        .column("b", DataTypes.BIGINT())
+                        .primaryKey("a")
+                        .build(),
+                false);
+
+        metadata = new TrinoMetadata(options, new TrinoPlanCache(MemorySize.ZERO));
+        session =
+                TestingConnectorSession.builder()
+                        .setPropertyMetadata(new TrinoSessionProperties().getSessionProperties())
+                        .build();
+    }
+
+    @Test
+    public void testStartVersion() {
+        // the changes after snapshot 1, by default up to the latest snapshot
+        TrinoTableHandle handle = tableHandle(snapshotVersion(1), Optional.empty());
+        assertThat(handle.table().options())
+                .containsEntry(CoreOptions.INCREMENTAL_BETWEEN.key(), "1,3");
+        assertThat(rowCount(handle)).isEqualTo(2);
+
+        handle = tableHandle(snapshotVersion(1), Optional.of(snapshotVersion(2)));
+        assertThat(handle.table().options())
+                .containsEntry(CoreOptions.INCREMENTAL_BETWEEN.key(), "1,2");
+        assertThat(rowCount(handle)).isEqualTo(1);
+
+        long millis = System.currentTimeMillis();
+        handle =
+                tableHandle(
+                        new ConnectorTableVersion(
+                                TEMPORAL, TIMESTAMP_TZ_MILLIS, packDateTimeWithZone(0, UTC_KEY)),
+                        Optional.of(
+                                new ConnectorTableVersion(
+                                        TEMPORAL,
+                                        TIMESTAMP_TZ_MILLIS,
+                                        packDateTimeWithZone(millis, UTC_KEY))));
+        assertThat(handle.table().options())
+                .containsEntry(CoreOptions.INCREMENTAL_BETWEEN_TIMESTAMP.key(), "0," + millis);
+        assertThat(rowCount(handle)).isEqualTo(3);
+
+        assertThatThrownBy(
+                        () ->
+                                tableHandle(
+                                        snapshotVersion(1),
+                                        Optional.of(
+                                                new ConnectorTableVersion(
+                                                        TEMPORAL,
+                                                        TIMESTAMP_TZ_MILLIS,
+                                                        packDateTimeWithZone(millis, UTC_KEY)))))
+                .isInstanceOf(TrinoException.class)
+                .hasMessageContaining("different types");
+    }
+
+    @Test
+    public void testPrimaryKeyGroupingProperty() {
+        TrinoTableHandle handle = metadata.getTableHandle(session, new SchemaTableName("db", "pk"));
+        List<LocalProperty<ColumnHandle>> localProperties =
+                metadata.getTableProperties(session, handle).getLocalProperties();
+        assertThat(localProperties)
+                .containsExactly(
+                        new GroupingProperty<>(
+                                Collections.singletonList(handle.columnHandle("a"))));
+
+        // the rows of a key may be in any split of an append-only table
+        handle = metadata.getTableHandle(session, TABLE_NAME);
+        assertThat(metadata.getTableProperties(session, handle).getLocalProperties()).isEmpty();
+    }
+
+    private TrinoTableHandle tableHandle(
+            ConnectorTableVersion startVersion, Optional<ConnectorTableVersion> endVersion) {
+        return (TrinoTableHandle)
+                metadata.getTableHandle(session, TABLE_NAME, Optional.of(startVersion), endVersion);
+    }
+
+    private static ConnectorTableVersion snapshotVersion(long snapshotId) {
+        return new ConnectorTableVersion(TARGET_ID, BIGINT, snapshotId);
+    }
+
+    private static long rowCount(TrinoTableHandle handle) {
+        return handle.table().newReadBuilder().newScan().plan().splits().stream()
+                .mapToLong(Split::rowCount)
+                .sum();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.data.BinaryString;
+import org.apache.paimon.data.GenericRow;
+import org.apache.paimon.data.InternalRow;
+import org.apache.paimon.reader.RecordReader;
+import org.apache.paimon.types.DataTypes;
+
+import io.trino.spi.Page;
+import io.trino.spi.block.RunLengthEncodedBlock;
+import io.trino.spi.connector.ColumnHandle;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link TrinoPageSource}. */
+public class TestTrinoPageSource {
+
+    private static final List<ColumnHandle> COLUMNS =
+            Arrays.asList(
+                    TrinoColumnHandle.of("a", DataTypes.BIGINT()),
+                    TrinoColumnHandle.of("b", DataTypes.STRING()));
+
+    @Test
+    public void testConstantColumns() throws Exception {
+        List<InternalRow> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(GenericRow.of((long) i));
+        }
+
+        try (TrinoPageSource pageSource =
+                new TrinoPageSource(
+                        reader(rows),
+                        COLUMNS,
+                        Collections.singletonMap(1, BinaryString.fromString("pt")),
+                        OptionalLong.empty())) {
+            Page page = pageSource.getNextPage();
+            assertThat(page.getChannelCount()).isEqualTo(2);
+            assertThat(page.getBlock(1)).isInstanceOf(RunLengthEncodedBlock.class);
+            for (int i = 0; i < 3; i++) {
+                assertThat(BIGINT.getLong(page.getBlock(0), i)).isEqualTo(i);
+                assertThat(VARCHAR.getSlice(page.getBlock(1), i).toStringUtf8()).isEqualTo("pt");
+            }
+        }
+    }
+
+    @Test
+    public void testPositionsOnly() throws Exception {
+        try (TrinoPageSource pageSource =
+                new TrinoPageSource(
+                        5000,
+                        COLUMNS.subList(1, 2),
+                        Collections.singletonMap(0, BinaryString.fromString("pt")),
+                        OptionalLong.empty())) {
+            Page first = pageSource.getNextPage();
+            assertThat(first.getBlock(0)).isInstanceOf(RunLengthEncodedBlock.class);
+            Page second = pageSource.getNextPage();
+            assertThat(first.getPositionCount() + second.getPositionCount()).isEqualTo(5000);
+            assertThat(pageSource.isFinished()).isTrue();
+        }
+
+        try (TrinoPageSource pageSource =
+                new TrinoPageSource(
+                        5000,
+                        Collections.emptyList(),
+                        Collections.emptyMap(),
+                        OptionalLong.of(3))) {
+            Page page = pageSource.getNextPage();
+            assertThat(page.getChannelCount()).isEqualTo(0);
+            assertThat(page.getPositionCount()).isEqualTo(3);
+            assertThat(pageSource.isFinished()).isTrue();
+        }
+    }
+
+    @Test
+    public void testReadAhead() throws Exception {
+        List<InternalRow> rows = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            rows.add(GenericRow.of((long) i, BinaryString.fromString("v" + i)));
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (TrinoPageSource pageSource =
+                new TrinoPageSource(
+                        reader(rows), COLUMNS, Collections.emptyMap(), OptionalLong.of(9000))) {
+            pageSource.enableReadAhead(executor, 2);
+            long position = 0;
+            while (!pageSource.isFinished()) {
+                pageSource.isBlocked().get(10, TimeUnit.SECONDS);
+                long bufferedBytes = pageSource.getMemoryUsage();
+                Page page = pageSource.getNextPage();
+                if (page == null) {
+                    continue;
+                }
+                assertThat(bufferedBytes).isGreaterThanOrEqualTo(page.getRetainedSizeInBytes());
+                for (int i = 0; i < page.getPositionCount(); i++) {
+                    assertThat(BIGINT.getLong(page.getBlock(0), i)).isEqualTo(position++);
+                }
+            }
+            assertThat(position).isEqualTo(9000);
+            assertThat(pageSource.getNextPage()).isNull();
+            assertThat(pageSource.getMemoryUsage()).isEqualTo(0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static RecordReader<InternalRow> reader(List<InternalRow> rows) {
+        return new RecordReader<InternalRow>() {
+
+            private boolean read = false;
+
+            @Nullable
+            @Override
+            public RecordIterator<InternalRow> readBatch() {
+                if (read) {
+                    return null;
+                }
+                read = true;
+                Iterator<InternalRow> iterator = rows.iterator();
+                return new RecordIterator<InternalRow>() {
+                    @Nullable
+                    @Override
+                    public InternalRow next() {
+                        return iterator.hasNext() ? iterator.next() : null;
+                    }
+
+                    @Override
+                    public void releaseBatch() {}
+                };
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.data.BinaryRow;
+import org.apache.paimon.data.GenericRow;
+import org.apache.paimon.fs.Path;
+import org.apache.paimon.fs.local.LocalFileIO;
+import org.apache.paimon.options.MemorySize;
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.table.FileStoreTableFactory;
+import org.apache.paimon.table.Table;
+import org.apache.paimon.table.source.Split;
+import org.apache.paimon.types.BigIntType;
+import org.apache.paimon.types.DataField;
+import org.apache.paimon.types.IntType;
+import org.apache.paimon.types.RowType;
+
+import io.trino.spi.predicate.TupleDomain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.apache.paimon.CoreOptions.SCAN_SNAPSHOT_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link TrinoPlanCache}. */
+public class TestTrinoPlanCache {
+
+    @TempDir java.nio.file.Path tempDir;
+
+    private SimpleTableTestHelper testHelper;
+    private FileStoreTable table;
+    private AtomicInteger planCount;
+    private Function<Table, List<Split>> planner;
+
+    @BeforeEach
+    public void before() throws Exception {
+        Path tablePath = new Path(tempDir.toUri().toString(), "t");
+        testHelper =
+                new SimpleTableTestHelper(
+                        tablePath,
+                        new RowType(
+                                Arrays.asList(
+                                        new DataField(0, "a", new IntType()),
+                                        new DataField(1, "b", new BigIntType()))));
+        testHelper.write(GenericRow.of(1, 1L));
+        testHelper.commit();
+        table = FileStoreTableFactory.create(LocalFileIO.create(), tablePath);
+        planCount = new AtomicInteger();
+        planner =
+                t -> {
+                    planCount.incrementAndGet();
+                    return t.newReadBuilder().newScan().plan().splits();
+                };
+    }
+
+    @Test
+    public void testCacheLatestSnapshot() throws Exception {
+        TrinoPlanCache cache = new TrinoPlanCache(MemorySize.ofMebiBytes(1));
+        List<Split> splits = plan(cache, table);
+        assertThat(plan(cache, table)).isEqualTo(splits);
+        assertThat(planCount.get()).isEqualTo(1);
+
+        testHelper.write(GenericRow.of(2, 2L));
+        testHelper.commit();
+        assertThat(rowCount(plan(cache, table))).isEqualTo(2);
+        assertThat(planCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCacheSnapshotId() throws Exception {
+        testHelper.write(GenericRow.of(2, 2L));
+        testHelper.commit();
+
+        TrinoPlanCache cache = new TrinoPlanCache(MemorySize.ofMebiBytes(1));
+        Table snapshot1 = table.copy(Collections.singletonMap(SCAN_SNAPSHOT_ID.key(), "1"));
+        assertThat(rowCount(plan(cache, snapshot1))).isEqualTo(1);
+        assertThat(rowCount(plan(cache, snapshot1))).isEqualTo(1);
+        assertThat(planCount.get()).isEqualTo(1);
+        assertThat(rowCount(plan(cache, table))).isEqualTo(2);
+        assertThat(planCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCachePartitions() throws Exception {
+        TrinoPlanCache cache = new TrinoPlanCache(MemorySize.ofMebiBytes(1));
+        AtomicInteger listCount = new AtomicInteger();
+        Function<Table, List<BinaryRow>> lister =
+                t -> {
+                    listCount.incrementAndGet();
+                    return t.newReadBuilder().newScan().listPartitions();
+                };
+        List<BinaryRow> partitions = cache.partitions(table, TupleDomain.all(), lister);
+        assertThat(partitions).hasSize(1);
+
+        // a second listing of the snapshot must not read the manifests again
+        LocalFileIO.create().delete(new Path(table.location(), "manifest"), true);
+        assertThat(cache.partitions(table, TupleDomain.all(), lister)).isEqualTo(partitions);
+        assertThat(listCount.get()).isEqualTo(1);
+
+        // partitions and splits of the same snapshot are cached apart
+        assertThat(
+                        cache.plan(
+                                table,
+                                TupleDomain.all(),
+                                OptionalLong.empty(),
+                                t -> Collections.emptyList()))
+                .isEmpty();
+    }
+
+    @Test
+    public void testCacheDisabled() {
+        TrinoPlanCache cache = new TrinoPlanCache(MemorySize.ZERO);
+        plan(cache, table);
+        plan(cache, table);
+        assertThat(planCount.get()).isEqualTo(2);
+    }
+
+    private List<Split> plan(TrinoPlanCache cache, Table table) {
+        return cache.plan(table, TupleDomain.all(), OptionalLong.empty(), planner);
+    }
+
+    private static long rowCount(List<Split> splits) {
+        return splits.stream().mapToLong(Split::rowCount).sum();
+    }
+}
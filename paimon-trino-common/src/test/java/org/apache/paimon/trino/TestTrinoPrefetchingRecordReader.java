@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.paimon.trino;
+
+import org.apache.paimon.data.GenericRow;
+import org.apache.paimon.data.InternalRow;
+import org.apache.paimon.fs.Path;
+import org.apache.paimon.fs.local.LocalFileIO;
+import org.apache.paimon.options.Options;
+import org.apache.paimon.reader.RecordReader;
+import org.apache.paimon.schema.Schema;
+import org.apache.paimon.schema.SchemaManager;
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.table.FileStoreTableFactory;
+import org.apache.paimon.table.sink.InnerTableCommit;
+import org.apache.paimon.table.sink.InnerTableWrite;
+import org.apache.paimon.table.source.ReadBuilder;
+import org.apache.paimon.table.source.Split;
+import org.apache.paimon.types.DataTypes;
+import org.apache.paimon.utils.InstantiationUtil;
+
+import io.trino.spi.Page;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.DynamicFilter;
+import io.trino.testing.TestingConnectorSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.paimon.CoreOptions.BUCKET;
+import static org.apache.paimon.CoreOptions.BUCKET_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link TrinoPrefetchingRecordReader}. */
+public class TestTrinoPrefetchingRecordReader {
+
+    private static final int BATCH_SIZE = 1024;
+
+    @TempDir java.nio.file.Path tempDir;
+
+    @Test
+    public void testPrefetch() throws Exception {
+        FileStoreTable table = createTable();
+        ReadBuilder readBuilder = table.newReadBuilder();
+        List<Split> splits = readBuilder.newScan().plan().splits();
+        assertThat(splits).hasSize(4);
+        List<Integer> expected = read(readBuilder.newRead().createReader(splits));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int prefetchSplits = 1; prefetchSplits <= 5; prefetchSplits++) {
+                assertThat(
+                                read(
+                                        new TrinoPrefetchingRecordReader(
+                                                readBuilder.newRead(),
+                                                splits,
+                                                BATCH_SIZE,
+                                                executor,
+                                                prefetchSplits)))
+                        .isEqualTo(expected)
+                        .hasSize(100);
+            }
+
+            // closing before all splits are read closes the prefetched readers
+            new TrinoPrefetchingRecordReader(readBuilder.newRead(), splits, BATCH_SIZE, executor, 2)
+                    .close();
+            assertThat(
+                            read(
+                                    new TrinoPrefetchingRecordReader(
+                                            readBuilder.newRead(),
+                                            Collections.emptyList(),
+                                            BATCH_SIZE,
+                                            executor,
+                                            2)))
+                    .isEmpty();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the first batches are reported until they are returned or the reader is closed, readers
+        // are opened on the calling thread here
+        TrinoPrefetchingRecordReader reader =
+                new TrinoPrefetchingRecordReader(
+                        readBuilder.newRead(), splits, BATCH_SIZE, Runnable::run, 4);
+        assertThat(reader.getMemoryUsage()).isGreaterThan(0);
+        assertThat(read(reader)).isEqualTo(expected);
+        assertThat(reader.getMemoryUsage()).isEqualTo(0);
+        reader =
+                new TrinoPrefetchingRecordReader(
+                        readBuilder.newRead(), splits, BATCH_SIZE, Runnable::run, 4);
+        reader.close();
+        assertThat(reader.getMemoryUsage()).isEqualTo(0);
+    }
+
+    @Test
+    public void testReadAheadOnOneReadThread() throws Exception {
+        FileStoreTable table = createTable();
+        List<Split> splits = table.newReadBuilder().newScan().plan().splits();
+        assertThat(splits).hasSize(4);
+        TrinoTableHandle tableHandle =
+                new TrinoTableHandle("default", "t", InstantiationUtil.serializeObject(table));
+        Map<String, Object> sessionProperties = new HashMap<>();
+        sessionProperties.put(TrinoSessionProperties.READ_AHEAD_PAGES, 2);
+        sessionProperties.put(TrinoSessionProperties.PREFETCH_SPLITS, 2);
+        ConnectorSession session =
+                TestingConnectorSession.builder()
+                        .setPropertyMetadata(new TrinoSessionProperties().getSessionProperties())
+                        .setPropertyValues(sessionProperties)
+                        .build();
+
+        // the read ahead task reaches the next split while its reader is opened, both need the
+        // only read thread
+        TrinoPageSourceProvider pageSourceProvider =
+                new TrinoPageSourceProvider(
+                        Options.fromMap(
+                                Collections.singletonMap(
+                                        TrinoConnectorOptions.READ_THREADS.key(), "1")));
+        long rows = 0;
+        try (ConnectorPageSource pageSource =
+                pageSourceProvider.createPageSource(
+                        TrinoTransactionHandle.INSTANCE,
+                        session,
+                        TrinoSplit.fromSplits(splits, 1.0),
+                        tableHandle,
+                        Collections.singletonList(tableHandle.columnHandle("a")),
+                        DynamicFilter.EMPTY)) {
+            while (!pageSource.isFinished()) {
+                pageSource.isBlocked().get(10, TimeUnit.SECONDS);
+                Page page = pageSource.getNextPage();
+                if (page != null) {
+                    rows += page.getPositionCount();
+                }
+            }
+        } finally {
+            pageSourceProvider.shutdown();
+        }
+        assertThat(rows).isEqualTo(100);
+    }
+
+    private FileStoreTable createTable() throws Exception {
+        Path path = new Path(tempDir.toUri().toString(), "t");
+        new SchemaManager(LocalFileIO.create(), path)
+                .createTable(
+                        Schema.newBuilder()
+                                .column("a", DataTypes.INT())
+                                .column("b", DataTypes.BIGINT())
+                                .option(BUCKET.key(), "4")
+                                .option(BUCKET_KEY.key(), "a")
+                                .build());
+        FileStoreTable table = FileStoreTableFactory.create(LocalFileIO.create(), path);
+        InnerTableWrite writer = table.newWrite("user");
+        InnerTableCommit commit = table.newCommit("user");
+        for (int i = 0; i < 100; i++) {
+            writer.write(GenericRow.of(i, (long) i));
+        }
+        commit.commit(0, writer.prepareCommit(true, 0));
+        writer.close();
+        commit.close();
+        return table;
+    }
+
+    private static List<Integer> read(RecordReader<InternalRow> reader) throws Exception {
+        List<Integer> values = new ArrayList<>();
+        try (RecordReader<InternalRow> r = reader) {
+            r.forEachRemaining(row -> values.add(row.getInt(0)));
+        }
+        return values;
+    }
+}
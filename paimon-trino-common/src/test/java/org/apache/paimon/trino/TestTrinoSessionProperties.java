@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.paimon.trino;
+
+import org.apache.paimon.options.MemorySize;
+
+import io.trino.spi.TrinoException;
+import io.trino.spi.session.PropertyMetadata;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.paimon.trino.TrinoSessionProperties.PREFETCH_SPLITS;
+import static org.apache.paimon.trino.TrinoSessionProperties.READ_AHEAD_PAGES;
+import static org.apache.paimon.trino.TrinoSessionProperties.SPLIT_OPEN_FILE_COST;
+import static org.apache.paimon.trino.TrinoSessionProperties.SPLIT_TARGET_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Test for {@link TrinoSessionProperties}. */
+public class TestTrinoSessionProperties {
+
+    private final TrinoSessionProperties sessionProperties = new TrinoSessionProperties();
+
+    @Test
+    public void testMemorySizeProperties() {
+        PropertyMetadata<MemorySize> targetSize = property(SPLIT_TARGET_SIZE);
+        assertThat(targetSize.decode("128 mb")).isEqualTo(MemorySize.ofMebiBytes(128));
+        assertThat(targetSize.decode(targetSize.encode(MemorySize.ofKibiBytes(1))))
+                .isEqualTo(MemorySize.ofKibiBytes(1));
+        assertThatThrownBy(() -> targetSize.decode("128 parsecs"))
+                .isInstanceOf(TrinoException.class)
+                .hasMessageContaining(SPLIT_TARGET_SIZE);
+        assertThatThrownBy(() -> targetSize.decode("0 b"))
+                .isInstanceOf(TrinoException.class)
+                .hasMessageContaining("at least 1 bytes");
+
+        PropertyMetadata<MemorySize> openFileCost = property(SPLIT_OPEN_FILE_COST);
+        assertThat(openFileCost.decode("0 b")).isEqualTo(MemorySize.ZERO);
+        assertThatThrownBy(() -> openFileCost.decode("-1 b")).isInstanceOf(TrinoException.class);
+    }
+
+    @Test
+    public void testNonNegativeProperties() {
+        PropertyMetadata<Integer> readAheadPages = property(READ_AHEAD_PAGES);
+        assertThat(readAheadPages.decode(0)).isEqualTo(0);
+        assertThat(readAheadPages.decode(4)).isEqualTo(4);
+        assertThatThrownBy(() -> readAheadPages.decode(-1))
+                .isInstanceOf(TrinoException.class)
+                .hasMessageContaining(READ_AHEAD_PAGES);
+
+        PropertyMetadata<Integer> prefetchSplits = property(PREFETCH_SPLITS);
+        assertThat(prefetchSplits.decode(2)).isEqualTo(2);
+        assertThatThrownBy(() -> prefetchSplits.decode(-1))
+                .isInstanceOf(TrinoException.class)
+                .hasMessageContaining(PREFETCH_SPLITS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> PropertyMetadata<T> property(String name) {
+        return (PropertyMetadata<T>)
+                sessionProperties.getSessionProperties().stream()
+                        .filter(property -> property.getName().equals(name))
+                        .findFirst()
+                        .orElseThrow(IllegalArgumentException::new);
+    }
+}
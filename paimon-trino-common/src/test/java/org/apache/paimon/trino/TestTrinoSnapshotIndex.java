@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.CoreOptions;
+import org.apache.paimon.data.GenericRow;
+import org.apache.paimon.fs.Path;
+import org.apache.paimon.fs.SeekableInputStream;
+import org.apache.paimon.fs.local.LocalFileIO;
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.table.FileStoreTableFactory;
+import org.apache.paimon.table.sink.InnerTableCommit;
+import org.apache.paimon.table.sink.InnerTableWrite;
+import org.apache.paimon.types.BigIntType;
+import org.apache.paimon.types.DataField;
+import org.apache.paimon.types.IntType;
+import org.apache.paimon.types.RowType;
+import org.apache.paimon.utils.SnapshotManager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link TrinoSnapshotIndex}. */
+public class TestTrinoSnapshotIndex {
+
+    @TempDir java.nio.file.Path tempDir;
+
+    @Test
+    public void testEarlierOrEqualTimeMills() throws Exception {
+        Path tablePath = new Path(tempDir.toUri().toString(), "t");
+        SimpleTableTestHelper testHelper =
+                new SimpleTableTestHelper(
+                        tablePath,
+                        new RowType(
+                                Arrays.asList(
+                                        new DataField(0, "a", new IntType()),
+                                        new DataField(1, "b", new BigIntType()))));
+        FileStoreTable table = FileStoreTableFactory.create(LocalFileIO.create(), tablePath);
+        SnapshotManager snapshotManager = table.snapshotManager();
+        TrinoSnapshotIndex index = new TrinoSnapshotIndex();
+        assertThat(index.earlierOrEqualTimeMills(table, Long.MAX_VALUE)).isNull();
+
+        for (int i = 1; i <= 3; i++) {
+            Thread.sleep(5);
+            testHelper.write(GenericRow.of(i, (long) i));
+            testHelper.commit();
+        }
+        for (long id = 1; id <= 3; id++) {
+            long time = snapshotManager.snapshot(id).timeMillis();
+            assertThat(index.earlierOrEqualTimeMills(table, time)).isEqualTo(id);
+            assertThat(index.earlierOrEqualTimeMills(table, time - 1))
+                    .isEqualTo(id == 1 ? null : id - 1);
+        }
+
+        // snapshots committed later are added to the index
+        testHelper.write(GenericRow.of(4, 4L));
+        testHelper.commit();
+        assertThat(index.earlierOrEqualTimeMills(table, Long.MAX_VALUE)).isEqualTo(4L);
+
+        // expired snapshots are removed from the index
+        long time = snapshotManager.snapshot(1).timeMillis();
+        table.fileIO().delete(snapshotManager.snapshotPath(1), false);
+        snapshotManager.commitEarliestHint(2);
+        assertThat(index.earlierOrEqualTimeMills(table, time)).isNull();
+        assertThat(index.earlierOrEqualTimeMills(table, time))
+                .isEqualTo(snapshotManager.earlierOrEqualTimeMills(time));
+
+        // the ids of rolled back snapshots are reused by later ones
+        long rolledBackTime = snapshotManager.snapshot(4).timeMillis();
+        assertThat(index.earlierOrEqualTimeMills(table, rolledBackTime)).isEqualTo(4L);
+        table.rollbackTo(3);
+        Thread.sleep(5);
+        commit(table, 5);
+        assertThat(snapshotManager.snapshot(4).timeMillis()).isGreaterThan(rolledBackTime);
+        assertThat(index.earlierOrEqualTimeMills(table, rolledBackTime)).isEqualTo(3L);
+        assertThat(index.earlierOrEqualTimeMills(table, Long.MAX_VALUE)).isEqualTo(4L);
+    }
+
+    @Test
+    public void testProbedSnapshotsOnly() throws Exception {
+        Path tablePath = new Path(tempDir.toUri().toString(), "t");
+        new SimpleTableTestHelper(
+                tablePath,
+                new RowType(
+                        Arrays.asList(
+                                new DataField(0, "a", new IntType()),
+                                new DataField(1, "b", new BigIntType()))));
+        AtomicInteger snapshotReads = new AtomicInteger();
+        FileStoreTable table =
+                FileStoreTableFactory.create(
+                        new LocalFileIO() {
+                            @Override
+                            public SeekableInputStream newInputStream(Path path)
+                                    throws IOException {
+                                if (path.getName().startsWith("snapshot-")) {
+                                    snapshotReads.incrementAndGet();
+                                }
+                                return super.newInputStream(path);
+                            }
+                        },
+                        tablePath);
+        table = table.copy(Collections.singletonMap(CoreOptions.WRITE_ONLY.key(), "true"));
+        try (InnerTableWrite writer = table.newWrite("user");
+                InnerTableCommit commit = table.newCommit("user")) {
+            for (int i = 1; i <= 64; i++) {
+                writer.write(GenericRow.of(i, (long) i));
+                commit.commit(i, writer.prepareCommit(false, i));
+            }
+        }
+
+        TrinoSnapshotIndex index = new TrinoSnapshotIndex();
+        long time = table.snapshotManager().snapshot(42).timeMillis();
+        // snapshots may be committed within the same millisecond
+        long expected = 42;
+        while (expected < 64
+                && table.snapshotManager().snapshot(expected + 1).timeMillis() == time) {
+            expected++;
+        }
+        snapshotReads.set(0);
+        assertThat(index.earlierOrEqualTimeMills(table, time)).isEqualTo(expected);
+        // a binary search over 64 snapshots, and the check of the result
+        assertThat(snapshotReads.get()).isLessThanOrEqualTo(9);
+
+        snapshotReads.set(0);
+        assertThat(index.earlierOrEqualTimeMills(table, time)).isEqualTo(expected);
+        assertThat(snapshotReads.get()).isLessThanOrEqualTo(2);
+    }
+
+    private static void commit(FileStoreTable table, int value) throws Exception {
+        try (InnerTableWrite writer = table.newWrite("user");
+                InnerTableCommit commit = table.newCommit("user")) {
+            writer.write(GenericRow.of(value, (long) value));
+            commit.commit(value, writer.prepareCommit(true, value));
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.paimon.trino;
+
+import org.apache.paimon.data.BinaryRow;
+import org.apache.paimon.data.BinaryRowWriter;
+import org.apache.paimon.data.GenericRow;
+import org.apache.paimon.data.InternalRow;
+import org.apache.paimon.fs.Path;
+import org.apache.paimon.fs.local.LocalFileIO;
+import org.apache.paimon.io.DataFileMeta;
+import org.apache.paimon.options.MemorySize;
+import org.apache.paimon.options.Options;
+import org.apache.paimon.schema.Schema;
+import org.apache.paimon.schema.SchemaManager;
+import org.apache.paimon.table.FileStoreTable;
+import org.apache.paimon.table.FileStoreTableFactory;
+import org.apache.paimon.table.Table;
+import org.apache.paimon.table.sink.FixedBucketRowKeyExtractor;
+import org.apache.paimon.table.sink.InnerTableCommit;
+import org.apache.paimon.table.sink.InnerTableWrite;
+import org.apache.paimon.table.source.DataSplit;
+import org.apache.paimon.table.source.ReadBuilder;
+import org.apache.paimon.table.source.Split;
+import org.apache.paimon.table.system.ReadOptimizedTable;
+import org.apache.paimon.types.BigIntType;
+import org.apache.paimon.types.DataField;
+import org.apache.paimon.types.DataTypes;
+import org.apache.paimon.types.IntType;
+import org.apache.paimon.types.RowType;
+import org.apache.paimon.utils.InstantiationUtil;
+
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.connector.ConnectorSplitSource;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.testing.TestingConnectorSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static org.apache.paimon.CoreOptions.BUCKET;
+import static org.apache.paimon.CoreOptions.BUCKET_KEY;
+import static org.apache.paimon.data.BinaryRow.EMPTY_ROW;
+import static org.apache.paimon.io.DataFileMeta.EMPTY_KEY_STATS;
+import static org.apache.paimon.io.DataFileMeta.EMPTY_MAX_KEY;
+import static org.apache.paimon.io.DataFileMeta.EMPTY_MIN_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link TrinoSplitManagerBase}. */
+public class TestTrinoSplitManager {
+
+    private static final RowType ROW_TYPE =
+            new RowType(
+                    Arrays.asList(
+                            new DataField(0, "a", new IntType()),
+                            new DataField(1, "b", new BigIntType())));
+
+    @TempDir java.nio.file.Path tempDir;
+
+    private int fileCount;
+
+    @Test
+    public void testEstimateCost() {
+        DataSplit single = split(file(1000, 5));
+        assertThat(TrinoSplitManagerBase.estimateCost(single, 1.0, true)).isEqualTo(1000);
+        assertThat(TrinoSplitManagerBase.estimateCost(single, 0.5, true)).isEqualTo(500);
+
+        // two level 0 files and one level 5 file are three sorted runs
+        DataSplit runs = split(file(1000, 0), file(1000, 0), file(2000, 5));
+        assertThat(TrinoSplitManagerBase.estimateCost(runs, 1.0, false)).isEqualTo(4000);
+        assertThat(TrinoSplitManagerBase.estimateCost(runs, 1.0, true))
+                .isEqualTo(4000 * (1 + Math.log(3) / Math.log(2)));
+
+        // files of one upper level are a single sorted run
+        DataSplit level = split(file(1000, 5), file(1000, 5));
+        assertThat(TrinoSplitManagerBase.estimateCost(level, 1.0, true)).isEqualTo(2000);
+    }
+
+    @Test
+    public void testCoalesce() {
+        BinaryRow partition1 = row(1);
+        BinaryRow partition2 = row(2);
+        DataSplit large = split(partition1, file(200, 0));
+        DataSplit small1 = split(partition1, file(40, 0));
+        DataSplit small2 = split(partition2, file(40, 0));
+        DataSplit small3 = split(partition1, file(40, 0));
+        DataSplit small4 = split(partition1, file(5, 0), file(5, 0));
+        DataSplit small5 = split(partition1, file(40, 0));
+
+        // small files are counted with the open file cost of 10
+        List<List<Split>> groups =
+                TrinoSplitManagerBase.coalesce(
+                        Arrays.asList(large, small1, small2, small3, small4, small5), 100, 10);
+        assertThat(groups)
+                .containsExactly(
+                        Collections.singletonList(large),
+                        Arrays.asList(small1, small3, small4),
+                        Collections.singletonList(small5),
+                        Collections.singletonList(small2));
+    }
+
+    @Test
+    public void testSplitByKeyRange() {
+        Comparator<InternalRow> keyComparator = Comparator.comparingInt(key -> key.getInt(0));
+        DataFileMeta file1 = file(60, 0, 1, 10);
+        DataFileMeta file2 = file(60, 0, 5, 15);
+        DataFileMeta file3 = file(60, 5, 20, 30);
+        DataFileMeta file4 = file(60, 5, 31, 40);
+        DataFileMeta file5 = file(10, 5, 41, 50);
+
+        // overlapping files must be merged in the same range
+        List<Split> ranges =
+                TrinoSplitManagerBase.splitByKeyRange(
+                        split(file1, file2, file3, file4, file5), keyComparator, 100);
+        assertThat(ranges).containsExactly(split(file1, file2), split(file3, file4), split(file5));
+
+        DataSplit small = split(file1, file2, file3);
+        assertThat(TrinoSplitManagerBase.splitByKeyRange(small, keyComparator, 1000))
+                .containsExactly(small);
+    }
+
+    @Test
+    public void testSample() {
+        List<Split> splits = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            splits.add(split(file(10, 0), file(10, 0)));
+        }
+        assertThat(TrinoSplitManagerBase.sample(splits, 0, false)).isEmpty();
+        assertThat(TrinoSplitManagerBase.sample(splits, 1, false)).isEqualTo(splits);
+
+        // about half of the files are kept, the same ones every time
+        List<Split> sampled = TrinoSplitManagerBase.sample(splits, 0.5, false);
+        long fileCount =
+                sampled.stream().mapToLong(split -> ((DataSplit) split).dataFiles().size()).sum();
+        assertThat(fileCount).isBetween(50L, 150L);
+        assertThat(TrinoSplitManagerBase.sample(splits, 0.5, false)).isEqualTo(sampled);
+
+        // the files of splits to merge are kept or skipped together
+        assertThat(TrinoSplitManagerBase.sample(splits, 0.5, true))
+                .allMatch(splits::contains)
+                .hasSizeBetween(25, 75);
+    }
+
+    @Test
+    public void testBucketPruning() throws Exception {
+        for (List<String> primaryKeys :
+                Arrays.asList(Collections.singletonList("a"), Collections.<String>emptyList())) {
+            Path path = new Path(tempDir.toUri().toString(), "t" + primaryKeys.size());
+            Map<String, String> options = new HashMap<>();
+            options.put(BUCKET.key(), "4");
+            options.put(BUCKET_KEY.key(), "a");
+            new SchemaManager(LocalFileIO.create(), path)
+                    .createTable(
+                            new Schema(
+                                    ROW_TYPE.getFields(),
+                                    Collections.emptyList(),
+                                    primaryKeys,
+                                    options,
+                                    ""));
+            FileStoreTable table = FileStoreTableFactory.create(LocalFileIO.create(), path);
+            InnerTableWrite writer = table.newWrite("user");
+            InnerTableCommit commit = table.newCommit("user");
+            for (int i = 0; i < 100; i++) {
+                writer.write(GenericRow.of(i, (long) i));
+            }
+            commit.commit(0, writer.prepareCommit(true, 0));
+            assertThat(buckets(table, Domain.all(INTEGER))).hasSize(4);
+
+            // the scan only reads the buckets the filtered bucket keys hash to
+            assertThat(buckets(table, Domain.singleValue(INTEGER, 42L)))
+                    .containsExactly(bucket(table, 42));
+            assertThat(buckets(table, Domain.multipleValues(INTEGER, Arrays.asList(42L, 43L))))
+                    .isEqualTo(new HashSet<>(Arrays.asList(bucket(table, 42), bucket(table, 43))));
+        }
+    }
+
+    @Test
+    public void testReadOptimizedSplitsCoalesced() throws Exception {
+        Path path = new Path(tempDir.toUri().toString(), "ro");
+        Map<String, String> options = new HashMap<>();
+        options.put(BUCKET.key(), "4");
+        new SchemaManager(LocalFileIO.create(), path)
+                .createTable(
+                        new Schema(
+                                ROW_TYPE.getFields(),
+                                Collections.emptyList(),
+                                Collections.singletonList("a"),
+                                options,
+                                ""));
+        FileStoreTable table = FileStoreTableFactory.create(LocalFileIO.create(), path);
+        InnerTableWrite writer = table.newWrite("user");
+        InnerTableCommit commit = table.newCommit("user");
+        for (int i = 0; i < 100; i++) {
+            writer.write(GenericRow.of(i, (long) i));
+        }
+        for (int bucket = 0; bucket < 4; bucket++) {
+            writer.compact(EMPTY_ROW, bucket, true);
+        }
+        commit.commit(0, writer.prepareCommit(true, 0));
+
+        // the buckets must be merged, each one is a split
+        assertThat(trinoSplits(table, false)).hasSize(4);
+        // the fully compacted files are read as they are, the small buckets are coalesced
+        List<TrinoSplit> readOptimized = trinoSplits(new ReadOptimizedTable(table), true);
+        assertThat(readOptimized).hasSize(1);
+        assertThat(readOptimized.get(0).decodeSplits()).hasSize(4);
+    }
+
+    private static List<TrinoSplit> trinoSplits(Table table, boolean readOptimized)
+            throws Exception {
+        ConnectorSession session =
+                TestingConnectorSession.builder()
+                        .setPropertyMetadata(new TrinoSessionProperties().getSessionProperties())
+                        .setPropertyValues(
+                                Collections.singletonMap(
+                                        TrinoSessionProperties.READ_OPTIMIZED, readOptimized))
+                        .build();
+        TrinoTableHandle tableHandle =
+                new TrinoTableHandle(
+                        "default", table.name(), InstantiationUtil.serializeObject(table));
+        ConnectorSplitSource splitSource =
+                new TrinoSplitManager(new Options(), new TrinoPlanCache(MemorySize.ZERO))
+                        .getSplits(tableHandle, session);
+        return splitSource.getNextBatch(Integer.MAX_VALUE).get().getSplits().stream()
+                .map(TrinoSplit.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    private static int bucket(FileStoreTable table, int a) {
+        FixedBucketRowKeyExtractor extractor = new FixedBucketRowKeyExtractor(table.schema());
+        extractor.setRecord(GenericRow.of(a, (long) a));
+        return extractor.bucket();
+    }
+
+    private static Set<Integer> buckets(FileStoreTable table, Domain domain) {
+        ReadBuilder read = table.newReadBuilder();
+        new TrinoFilterConverter(ROW_TYPE)
+                .convert(
+                        TupleDomain.withColumnDomains(
+                                Collections.singletonMap(
+                                        TrinoColumnHandle.of("a", DataTypes.INT()), domain)))
+                .ifPresent(read::withFilter);
+        return read.newScan().plan().splits().stream()
+                .map(split -> ((DataSplit) split).bucket())
+                .collect(Collectors.toSet());
+    }
+
+    private static BinaryRow row(int value) {
+        BinaryRow row = new BinaryRow(1);
+        BinaryRowWriter writer = new BinaryRowWriter(row);
+        writer.writeInt(0, value);
+        writer.complete();
+        return row;
+    }
+
+    private static DataSplit split(DataFileMeta... files) {
+        return split(EMPTY_ROW, files);
+    }
+
+    private static DataSplit split(BinaryRow partition, DataFileMeta... files) {
+        return DataSplit.builder()
+                .withSnapshot(1)
+                .withPartition(partition)
+                .withBucket(0)
+                .withDataFiles(Arrays.asList(files))
+                .build();
+    }
+
+    private DataFileMeta file(long fileSize, int level) {
+        return file(fileSize, level, EMPTY_MIN_KEY, EMPTY_MAX_KEY);
+    }
+
+    private DataFileMeta file(long fileSize, int level, int minKey, int maxKey) {
+        return file(fileSize, level, row(minKey), row(maxKey));
+    }
+
+    private DataFileMeta file(long fileSize, int level, BinaryRow minKey, BinaryRow maxKey) {
+        return new DataFileMeta(
+                "file-" + fileCount++,
+                fileSize,
+                1,
+                minKey,
+                maxKey,
+                EMPTY_KEY_STATS,
+                EMPTY_KEY_STATS,
+                0,
+                0,
+                0,
+                level);
+    }
+}
@@ -23,6 +23,7 @@ import io.trino.spi.predicate.TupleDomain;
 import org.junit.jupiter.api.Test;
 
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,6 +45,7 @@ public class TestTrinoTableHandle {
                         Optional.empty(),
                         OptionalLong.empty());
         testRoundTrip(expected);
+        testRoundTrip(expected.copy(OptionalDouble.of(0.1)));
     }
 
     private void testRoundTrip(TrinoTableHandle expected) {
@@ -55,5 +57,6 @@ public class TestTrinoTableHandle {
         assertThat(actual.getSerializedTable()).isEqualTo(expected.getSerializedTable());
         assertThat(actual.getFilter()).isEqualTo(expected.getFilter());
         assertThat(actual.getProjectedColumns()).isEqualTo(expected.getProjectedColumns());
+        assertThat(actual.getSampleRatio()).isEqualTo(expected.getSampleRatio());
     }
 }